@@ -19,14 +19,16 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 
 import equinox.analysisServer.client.AnalysisClient;
 import equinox.analysisServer.remote.data.AnalysisServerStatistic;
 import equinox.analysisServer.server.AnalysisServer;
+import equinox.analysisServer.server.FailureCache;
+import equinox.analysisServer.server.ResultCache;
 import equinox.analysisServer.utility.AdminAnswer;
 import equinox.analysisServer.utility.ServerCommand;
 
@@ -222,7 +224,7 @@ public class EntryPoint {
 
 			// yes
 			else if (AdminAnswer.YES.matches(line)) {
-				server.getProperties().setProperty("temp.delete", "yes");
+				server.setProperty("temp.delete", "yes");
 				stdOut.write("\tServer property 'Delete temporary files' is set to 'yes'.");
 				stdOut.newLine();
 				stdOut.write("}");
@@ -233,7 +235,7 @@ public class EntryPoint {
 
 			// no
 			else if (AdminAnswer.NO.matches(line)) {
-				server.getProperties().setProperty("temp.delete", "no");
+				server.setProperty("temp.delete", "no");
 				stdOut.write("\tServer property 'Delete temporary files' is set to 'no'.");
 				stdOut.newLine();
 				stdOut.write("}");
@@ -301,6 +303,31 @@ public class EntryPoint {
 			stdOut.newLine();
 		}
 
+		// write reclaimed scratch space
+		stdOut.write("\tScratch bytes reclaimed: " + server.getScratchReaper().getBytesReclaimed());
+		stdOut.newLine();
+
+		// write result cache state
+		ResultCache cache = server.getResultCache();
+		stdOut.write("\tResult cache: " + cache.getEntryCount() + " entries, " + cache.getSize() + " bytes, " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+		stdOut.newLine();
+
+		// write failure cache state
+		FailureCache failures = server.getFailureCache();
+		stdOut.write("\tFailure cache: " + failures.getEntryCount() + " entries, " + failures.getHits() + " hits");
+		stdOut.newLine();
+
+		// write result mailbox state
+		stdOut.write("\tResult mailbox: " + server.getResultMailbox().getMessageCount() + " undelivered messages");
+		stdOut.newLine();
+
+		// write drain progress
+		String drainStatus = server.getDrainStatus();
+		if (drainStatus != null) {
+			stdOut.write("\t" + drainStatus);
+			stdOut.newLine();
+		}
+
 		// flush
 		stdOut.write("}");
 		stdOut.newLine();
@@ -357,26 +384,23 @@ public class EntryPoint {
 		stdOut.write("Currently connected clients {");
 		stdOut.newLine();
 
-		// get clients
-		List<AnalysisClient> clients = server.getClients();
-
-		// sync over clients
-		synchronized (clients) {
+		// get snapshot of clients
+		List<AnalysisClient> clients = new ArrayList<>(server.getClients());
 
-			// no client
-			if (clients.isEmpty()) {
-				stdOut.write("\tNo client connected.");
-				stdOut.newLine();
-			}
+		// no client
+		if (clients.isEmpty()) {
+			stdOut.write("\tNo client connected.");
+			stdOut.newLine();
+		}
 
-			// write client aliases
-			else {
-				Iterator<AnalysisClient> i = clients.iterator();
-				while (i.hasNext()) {
-					AnalysisClient c = i.next();
-					stdOut.write("\t" + c.getAlias());
-					stdOut.newLine();
+		// write client aliases
+		else {
+			for (AnalysisClient c : clients) {
+				stdOut.write("\t" + c.getAlias());
+				if (c.getCompressionRatio() > 0.0) {
+					stdOut.write(String.format(" (compression ratio %.2f, %d bytes saved)", c.getCompressionRatio(), c.getCompressionSavings()));
 				}
+				stdOut.newLine();
 			}
 		}
 
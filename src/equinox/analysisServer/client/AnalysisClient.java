@@ -15,14 +15,20 @@
  */
 package equinox.analysisServer.client;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import com.esotericsoftware.kryonet.FrameworkMessage;
+
+import equinox.analysisServer.remote.message.AnalysisMessage;
+import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
 import equinox.analysisServer.server.Lobby;
-import equinox.serverUtilities.BigMessage;
+import equinox.analysisServer.server.ResultMailbox;
+import equinox.analysisServer.transport.TransportConnection;
 import equinox.serverUtilities.NetworkMessage;
 import equinox.serverUtilities.PartialMessage;
 import equinox.serverUtilities.SplitMessage;
@@ -41,16 +47,31 @@ public class AnalysisClient {
 	private final String alias_;
 
 	/** Connection object to send messages to this client. */
-	private final ClientConnection connection_;
+	private final TransportConnection connection_;
+
+	/** Negotiated capability flags (see <code>HandshakeWithAnalysisServer</code>). */
+	private volatile int capabilities_ = 0;
 
-	/** Map containing the partial messages and their ancestors' hash codes. */
-	private final HashMap<Integer, PartialMessage[]> partialMessages_ = new HashMap<>();
+	/** Uncompressed and compressed sizes of the compressed messages sent to this client. */
+	private final AtomicLong uncompressedBytes_ = new AtomicLong(), compressedBytes_ = new AtomicLong();
+
+	/** Reassembly buffer for partial messages. */
+	private final ReassemblyBuffer reassemblyBuffer_;
 
 	/** Server lobby. */
 	private final Lobby lobby_;
 
+	/** Asynchronous outbound message queue. */
+	private final OutboundQueue outboundQueue_;
+
+	/** Messages sent while the handshake is pending (guarded by this client). */
+	private final ArrayList<NetworkMessage> held_ = new ArrayList<>();
+
+	/** True until the handshake reply and the mailbox of the client alias are queued. */
+	private volatile boolean isHandshakePending_ = true;
+
 	/**
-	 * Creates client.
+	 * Creates client. The client is not attached to the connection, this is done once the client is added to the server (see <code>TransportConnection.setClient</code>).
 	 *
 	 * @param connection
 	 *            Connection of the client.
@@ -59,10 +80,12 @@ public class AnalysisClient {
 	 * @param lobby
 	 *            Server lobby.
 	 */
-	public AnalysisClient(ClientConnection connection, String alias, Lobby lobby) {
+	public AnalysisClient(TransportConnection connection, String alias, Lobby lobby) {
 		alias_ = alias;
-		connection_ = connection.setClient(this);
+		connection_ = connection;
 		lobby_ = lobby;
+		outboundQueue_ = new OutboundQueue(lobby.getServer(), this, connection_);
+		reassemblyBuffer_ = new ReassemblyBuffer(lobby.getServer(), this);
 	}
 
 	/**
@@ -74,6 +97,59 @@ public class AnalysisClient {
 		return alias_;
 	}
 
+	/**
+	 * Sets the negotiated capabilities of this client.
+	 *
+	 * @param capabilities
+	 *            Negotiated capability flags (see <code>HandshakeWithAnalysisServer</code>).
+	 */
+	public void setCapabilities(int capabilities) {
+		capabilities_ = capabilities;
+	}
+
+	/**
+	 * Returns true if the given capability is negotiated with this client.
+	 *
+	 * @param capability
+	 *            Capability flag (see <code>HandshakeWithAnalysisServer</code>).
+	 * @return True if the given capability is negotiated with this client.
+	 */
+	public boolean hasCapability(int capability) {
+		return (capabilities_ & capability) != 0;
+	}
+
+	/**
+	 * Records a compressed message sent to this client.
+	 *
+	 * @param uncompressed
+	 *            Uncompressed size in bytes.
+	 * @param compressed
+	 *            Compressed size in bytes.
+	 */
+	void recordCompression(long uncompressed, long compressed) {
+		uncompressedBytes_.addAndGet(uncompressed);
+		compressedBytes_.addAndGet(compressed);
+	}
+
+	/**
+	 * Returns the ratio of uncompressed to compressed size of the messages compressed for this client, or 0 if no message was compressed.
+	 *
+	 * @return The compression ratio.
+	 */
+	public double getCompressionRatio() {
+		long compressed = compressedBytes_.get();
+		return compressed == 0L ? 0.0 : (double) uncompressedBytes_.get() / compressed;
+	}
+
+	/**
+	 * Returns the number of bytes saved by compressing messages for this client.
+	 *
+	 * @return The number of bytes saved by compression.
+	 */
+	public long getCompressionSavings() {
+		return uncompressedBytes_.get() - compressedBytes_.get();
+	}
+
 	/**
 	 * Returns the lobby of this client.
 	 *
@@ -84,43 +160,94 @@ public class AnalysisClient {
 	}
 
 	/**
-	 * Sends given message to this client.
+	 * Queues given message to be sent to this client. This method returns immediately, the message is written to the connection by the outbound queue of this client. Progress messages may be dropped if the client is not consuming its messages.
+	 * <p>
+	 * Messages sent while the handshake is pending are held, and queued after the handshake reply and the messages kept in the result mailbox of the client alias (see {@link #completeHandshake(HandshakeWithAnalysisServer)}).
 	 *
 	 * @param message
 	 *            Message to send.
-	 * @return The number of bytes sent.
+	 * @return True if the message is queued or held, false if it is dropped.
 	 */
-	synchronized public int sendMessage(NetworkMessage message) {
+	public boolean sendMessage(NetworkMessage message) {
 
-		try {
+		// handshake pending (hold message)
+		if (isHandshakePending_) {
+			synchronized (this) {
+				if (isHandshakePending_) {
+					held_.add(message);
+					return true;
+				}
+			}
+		}
+
+		// add to queue
+		return outboundQueue_.add(message);
+	}
+
+	/**
+	 * Completes the handshake of this client. The given handshake reply is queued first, followed by the unexpired messages in the result mailbox of the client alias and the messages held while the handshake was pending.
+	 *
+	 * @param reply
+	 *            Handshake reply.
+	 */
+	public void completeHandshake(HandshakeWithAnalysisServer reply) {
+		ResultMailbox mailbox = lobby_.getServer().getResultMailbox();
+		synchronized (this) {
 
-			// not a big message
-			if (message instanceof BigMessage == false)
-				return connection_.sendTCP(message);
+			// queue reply
+			outboundQueue_.add(reply);
 
-			// not big
-			if (!((BigMessage) message).isReallyBig())
-				return connection_.sendTCP(message);
+			// replay results of the analyses completed while the client was disconnected
+			mailbox.replay(alias_, outboundQueue_::add);
 
-			// split message into partial messages
-			PartialMessage[] parts = SplitMessage.splitMessage((BigMessage) message);
+			// queue held messages (keep results which cannot be queued)
+			for (NetworkMessage message : held_) {
+				if (!outboundQueue_.add(message) && ResultMailbox.isResult(message)) {
+					mailbox.put(alias_, (AnalysisMessage) message);
+				}
+			}
+			held_.clear();
+			isHandshakePending_ = false;
+		}
+	}
 
-			// no need to split message
-			if (parts == null)
-				return connection_.sendTCP(message);
+	/**
+	 * Closes the outbound queue and clears the reassembly buffer of this client. Queued and held analysis results (see <code>ResultMailbox.isResult</code>) are kept in the result mailbox of the client alias, other queued messages and incomplete partial messages are discarded. This is called when the connection of this client is closed.
+	 */
+	public void connectionClosed() {
+		ResultMailbox mailbox = lobby_.getServer().getResultMailbox();
 
-			// send parts
-			int bytesSent = 0;
-			for (PartialMessage part : parts) {
-				bytesSent += connection_.sendTCP(part);
+		// keep held results
+		synchronized (this) {
+			for (NetworkMessage message : held_) {
+				if (ResultMailbox.isResult(message)) {
+					mailbox.put(alias_, (AnalysisMessage) message);
+				}
 			}
-			return bytesSent;
+			held_.clear();
+			isHandshakePending_ = false;
 		}
 
-		// exception occurred during sending message
-		catch (Exception e) {
-			lobby_.getServer().getLogger().log(Level.WARNING, "Exception occurred during sending message to client.", e);
-			return 0;
+		// keep queued results
+		for (AnalysisMessage message : outboundQueue_.close()) {
+			mailbox.put(alias_, message);
+		}
+		reassemblyBuffer_.clear();
+	}
+
+	/**
+	 * Sends a heartbeat to this client over UDP, if the client has a UDP channel. Heartbeats keep the UDP path of the client open during long analyses without progress messages.
+	 */
+	public void sendHeartbeat() {
+		if (connection_.getRemoteAddressUDP() != null) {
+			try {
+				connection_.sendUDP(FrameworkMessage.keepAlive);
+			}
+
+			// exception occurred during sending heartbeat
+			catch (Exception e) {
+				lobby_.getServer().getLogger().log(Level.FINE, "Cannot send heartbeat to client '" + alias_ + "'.", e);
+			}
 		}
 	}
 
@@ -132,7 +259,7 @@ public class AnalysisClient {
 	}
 
 	/**
-	 * Responds to partial messages received from the client.
+	 * Responds to partial messages received from the client. This method can be called concurrently for the fragments of the same message.
 	 *
 	 * @param part
 	 *            Partial message to respond.
@@ -141,34 +268,22 @@ public class AnalysisClient {
 	 */
 	public void receivePartialMessage(PartialMessage part) throws Exception {
 
-		// get message parameters
-		int id = part.getID();
-		int numParts = part.getNumParts();
-		int index = part.getIndex();
-
-		// get all current parts
-		PartialMessage[] parts = partialMessages_.get(id);
-
-		// ID not contained
-		if (parts == null) {
-			parts = new PartialMessage[numParts];
-			parts[index] = part;
-			partialMessages_.put(id, parts);
-		}
-		else {
-			parts[index] = part;
-		}
-
-		// check whether all parts completed
-		for (PartialMessage p : parts)
-			if (p == null)
-				return;
+		// add to reassembly buffer
+		PartialMessage[] parts = reassemblyBuffer_.add(part);
 
 		// combine parts and respond with client lobby
-		lobby_.respond(this, SplitMessage.combineMessages(parts));
+		if (parts != null) {
+			lobby_.respond(this, SplitMessage.combineMessages(parts));
+		}
+	}
 
-		// remove parts
-		partialMessages_.remove(id);
+	/**
+	 * Discards incomplete partial messages which didn't receive any fragment within the expiry period.
+	 *
+	 * @return Number of discarded partial messages.
+	 */
+	public int expirePartialMessages() {
+		return reassemblyBuffer_.expire();
 	}
 
 	@Override
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.client;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import equinox.analysisServer.transport.TransportConnection;
+import equinox.serverUtilities.BigMessage;
+import equinox.serverUtilities.PartialMessage;
+
+/**
+ * Class for streaming writer of big messages. The message is serialized twice: first to count its serialized size, then directly into fixed size partial messages which are sent as soon as they are filled. Partial messages reuse a pooled buffer, so memory usage doesn't depend on the size of the message. This bound doesn't apply to compressed messages: the compressed bytes of a message are built in memory as a whole before they are streamed (see <code>Compression.compress</code>), so that memory usage depends on the compressed size of the message.
+ * <p>
+ * The partial messages are identical to the ones created by <code>SplitMessage.splitMessage</code>, so that clients can combine them with <code>SplitMessage.combineMessages</code>.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 14:02:31
+ */
+final class ChunkedMessageWriter extends OutputStream {
+
+	/** Size of partial messages in bytes (same as <code>SplitMessage</code>). */
+	static final int PART_SIZE = 8000;
+
+	/** Delay between checks of the TCP write buffer (in milliseconds). */
+	private static final long WAIT_DELAY = 10L;
+
+	/** Pooled chunk buffers. */
+	private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[PART_SIZE]);
+
+	/** Connection to write to. */
+	private final TransportConnection connection_;
+
+	/** Maximum TCP write buffer usage to continue writing (in bytes). */
+	private final int writeThreshold_;
+
+	/** Message ID and number of parts. */
+	private final int id_, numParts_;
+
+	/** Class name of the message. */
+	private final String className_;
+
+	/** Total serialized size in bytes. */
+	private final long length_;
+
+	/** Chunk buffer. */
+	private final byte[] buffer_ = BUFFERS.get();
+
+	/** Number of bytes in the chunk buffer, index of the next part. */
+	private int position_ = 0, index_ = 0;
+
+	/** Number of bytes written so far, number of bytes sent over the network. */
+	private long written_ = 0L, bytesSent_ = 0L;
+
+	/**
+	 * Creates chunked message writer.
+	 *
+	 * @param connection
+	 *            Connection to write to.
+	 * @param writeThreshold
+	 *            Maximum TCP write buffer usage to continue writing (in bytes).
+	 * @param message
+	 *            Message to write.
+	 * @param length
+	 *            Serialized size of the message.
+	 */
+	private ChunkedMessageWriter(TransportConnection connection, int writeThreshold, BigMessage message, long length) {
+		connection_ = connection;
+		writeThreshold_ = writeThreshold;
+		id_ = message.hashCode();
+		className_ = message.getClass().getName();
+		length_ = length;
+		numParts_ = (int) ((length + PART_SIZE - 1) / PART_SIZE);
+	}
+
+	/**
+	 * Writes given big message to the given connection as partial messages. The calling thread waits while the TCP write buffer of the connection is full. Messages smaller than one part are sent as a whole.
+	 *
+	 * @param connection
+	 *            Connection to write to.
+	 * @param writeThreshold
+	 *            Maximum TCP write buffer usage to continue writing (in bytes).
+	 * @param message
+	 *            Message to write.
+	 * @return Number of bytes sent over the network.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	static int write(TransportConnection connection, int writeThreshold, BigMessage message) throws Exception {
+
+		// count serialized size
+		long length = count(message);
+
+		// small message
+		if (length < PART_SIZE)
+			return connection.sendTCP(message);
+
+		// stream parts
+		ChunkedMessageWriter writer = new ChunkedMessageWriter(connection, writeThreshold, message, length);
+		try (ObjectOutputStream out = new ObjectOutputStream(writer)) {
+			out.writeObject(message);
+		}
+
+		// check size
+		if (writer.index_ != writer.numParts_)
+			throw new Exception("Serialized size of message '" + writer.className_ + "' changed during writing.");
+		return (int) Math.min(Integer.MAX_VALUE, writer.bytesSent_);
+	}
+
+	/**
+	 * Returns the serialized size of the given big message. The message is serialized without being stored.
+	 *
+	 * @param message
+	 *            Message to count.
+	 * @return The serialized size of the message in bytes.
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	static long count(BigMessage message) throws IOException {
+		try (Counter counter = new Counter()) {
+			try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+				out.writeObject(message);
+			}
+			return counter.count_;
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		buffer_[position_++] = (byte) b;
+		written_++;
+		if (position_ == PART_SIZE) {
+			sendPart();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			int n = Math.min(len, PART_SIZE - position_);
+			System.arraycopy(b, off, buffer_, position_, n);
+			position_ += n;
+			written_ += n;
+			off += n;
+			len -= n;
+			if (position_ == PART_SIZE) {
+				sendPart();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (position_ > 0) {
+			sendPart();
+		}
+	}
+
+	/**
+	 * Sends the chunk buffer as the next partial message. The last part is copied to a buffer of its exact size.
+	 *
+	 * @throws IOException
+	 *             If the serialized size of the message exceeds the counted size, the thread is interrupted or the part cannot be sent.
+	 */
+	private void sendPart() throws IOException {
+
+		// size exceeded
+		if (index_ >= numParts_ || written_ > length_)
+			throw new IOException("Serialized size of message '" + className_ + "' changed during writing.");
+
+		// create part (the pooled buffer can be reused once the part is serialized to the write buffer)
+		byte[] data = position_ == PART_SIZE ? buffer_ : Arrays.copyOf(buffer_, position_);
+		PartialMessage part = new PartialMessage(data, id_, numParts_, index_++, className_);
+		position_ = 0;
+
+		// wait for write buffer room
+		try {
+			while (connection_.isConnected() && connection_.getTcpWriteBufferSize() > writeThreshold_) {
+				Thread.sleep(WAIT_DELAY);
+			}
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing message '" + className_ + "'.", e);
+		}
+
+		// send part (connection closed if nothing is sent)
+		int bytes = connection_.sendTCP(part);
+		if (bytes <= 0)
+			throw new IOException("Connection closed while writing message '" + className_ + "'.");
+		bytesSent_ += bytes;
+	}
+
+	/**
+	 * Inner class for output stream counting written bytes.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 14:11:48
+	 */
+	private static final class Counter extends OutputStream {
+
+		/** Number of bytes written. */
+		private long count_ = 0L;
+
+		@Override
+		public void write(int b) {
+			count_++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count_ += len;
+		}
+	}
+}
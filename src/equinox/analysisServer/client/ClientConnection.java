@@ -17,8 +17,10 @@ package equinox.analysisServer.client;
 
 import com.esotericsoftware.kryonet.Connection;
 
+import equinox.analysisServer.transport.TransportConnection;
+
 /**
- * Client connection to communicate with the client.
+ * Client connection to communicate with the client over KryoNet.
  *
  * @version 1.0
  * @author Murat Artim
@@ -26,7 +28,7 @@ import com.esotericsoftware.kryonet.Connection;
  * @date Jul 10, 2011
  *
  */
-public class ClientConnection extends Connection {
+public class ClientConnection extends Connection implements TransportConnection {
 
 	/** The client of this connection. */
 	private AnalysisClient client_ = null;
@@ -38,7 +40,8 @@ public class ClientConnection extends Connection {
 	 *            Client to set.
 	 * @return This connection.
 	 */
-	protected ClientConnection setClient(AnalysisClient client) {
+	@Override
+	public ClientConnection setClient(AnalysisClient client) {
 		client_ = client;
 		return this;
 	}
@@ -48,6 +51,7 @@ public class ClientConnection extends Connection {
 	 *
 	 * @return The client of this connection, or null if the connection did not login yet.
 	 */
+	@Override
 	public AnalysisClient getClient() {
 		return client_;
 	}
@@ -23,11 +23,12 @@ import com.esotericsoftware.kryonet.Listener;
 import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
 import equinox.analysisServer.server.AnalysisServer;
 import equinox.analysisServer.task.ProcessHandshake;
+import equinox.analysisServer.transport.TransportConnection;
 import equinox.serverUtilities.NetworkMessage;
 import equinox.serverUtilities.PartialMessage;
 
 /**
- * Class for client handler. Client handler manages the incoming client connections.
+ * Class for client handler. Client handler manages the incoming client connections. It listens to the KryoNet transport directly, other transports pass the received messages and disconnections to {@link #received(TransportConnection, Object)} and {@link #disconnected(TransportConnection)}.
  *
  * @version 1.0
  * @author Murat Artim
@@ -53,6 +54,23 @@ public class ClientHandler extends Listener {
 
 	@Override
 	public void received(final Connection connection, final Object object) {
+		received((TransportConnection) connection, object);
+	}
+
+	@Override
+	public void disconnected(Connection connection) {
+		disconnected((TransportConnection) connection);
+	}
+
+	/**
+	 * Called when an object is received from the given connection.
+	 *
+	 * @param connection
+	 *            Client connection.
+	 * @param object
+	 *            Received object.
+	 */
+	public void received(final TransportConnection connection, final Object object) {
 
 		// null connection/message or unsupported protocol
 		if (connection == null || object == null || object instanceof NetworkMessage == false)
@@ -61,33 +79,36 @@ public class ClientHandler extends Listener {
 		// respond
 		server_.getThreadPool().submit(() -> {
 
-			// get client connection and message
-			ClientConnection cc = (ClientConnection) connection;
-
 			// unknown client (hand shake required)
-			if (cc.getClient() == null) {
-				handShake(cc, (NetworkMessage) object);
+			if (connection.getClient() == null) {
+				handShake(connection, (NetworkMessage) object);
 			}
 
 			// known client
 			else {
-				processClient(cc, (NetworkMessage) object);
+				processClient(connection, (NetworkMessage) object);
 			}
 		});
 	}
 
-	@Override
-	public void disconnected(Connection connection) {
+	/**
+	 * Called when the given connection is closed.
+	 *
+	 * @param connection
+	 *            Client connection.
+	 */
+	public void disconnected(TransportConnection connection) {
 
 		// null connection
 		if (connection == null)
 			return;
 
 		// get client
-		AnalysisClient client = ((ClientConnection) connection).getClient();
+		AnalysisClient client = connection.getClient();
 
 		// remove client
 		if (client != null) {
+			client.connectionClosed();
 			server_.removeClient(client);
 		}
 	}
@@ -100,7 +121,7 @@ public class ClientHandler extends Listener {
 	 * @param message
 	 *            Network message.
 	 */
-	private void handShake(ClientConnection cc, NetworkMessage message) {
+	private void handShake(TransportConnection cc, NetworkMessage message) {
 
 		// respond to client message with its room protocol
 		try {
@@ -140,7 +161,7 @@ public class ClientHandler extends Listener {
 	 * @param message
 	 *            Client's message.
 	 */
-	private void processClient(ClientConnection connection, NetworkMessage message) {
+	private void processClient(TransportConnection connection, NetworkMessage message) {
 
 		// get client
 		AnalysisClient client = connection.getClient();
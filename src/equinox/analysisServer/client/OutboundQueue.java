@@ -0,0 +1,690 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.Compression;
+import equinox.analysisServer.remote.Registry;
+import equinox.analysisServer.remote.message.AnalysisComplete;
+import equinox.analysisServer.remote.message.AnalysisFailed;
+import equinox.analysisServer.remote.message.AnalysisMessage;
+import equinox.analysisServer.remote.message.AnalysisMessageBatch;
+import equinox.analysisServer.remote.message.AnalysisProgress;
+import equinox.analysisServer.remote.message.CompressedMessage;
+import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
+import equinox.analysisServer.server.AnalysisServer;
+import equinox.analysisServer.server.ResultMailbox;
+import equinox.analysisServer.server.ServerConfig;
+import equinox.analysisServer.transport.TransportConnection;
+import equinox.serverUtilities.BigMessage;
+import equinox.serverUtilities.NetworkMessage;
+
+/**
+ * Class for asynchronous outbound message queue of a client. Messages are queued by the calling threads and written to the client connection by a drain task running on the server thread pool, so that the callers never wait for the network.
+ * <p>
+ * The drain task only writes while the TCP write buffer of the connection has room for the largest serialized object, otherwise it is rescheduled. The queue is bounded by the serialized size of the queued messages, which is estimated from the average size of the message type, except for big messages whose serialized size is counted when they are queued. Progress messages are dropped when the queue exceeds its size, and the client is disconnected when the queue exceeds its limit.
+ * <p>
+ * For clients which negotiated batching, the drain task is started after a short linger time, and consecutive small analysis messages are bundled into one {@link AnalysisMessageBatch} up to the batch size. Since batches are bundled by estimated sizes, a batch which turns out not to fit the object buffer of the connection is not sent, its messages are sent one by one instead.
+ * <p>
+ * Progress messages are sent over UDP, bypassing the queue, if the client has registered a UDP channel. Since UDP messages may be lost or reordered, clients should ignore progress messages of completed analyses.
+ * <p>
+ * Progress messages are coalesced per listener: a progress message replaces the unwritten progress message of the same listener, and progress messages arriving within the minimum progress interval of a listener are deferred (only the latest one is kept). Deferred progress of a listener is discarded once its completion or failure message is queued. Completion and failure messages are never dropped.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 11:08:26
+ */
+final class OutboundQueue {
+
+	/** Default estimated serialized size of messages in bytes. */
+	private static final int DEFAULT_SIZE = 256;
+
+	/** Weight of the latest observation in serialized size averages. */
+	private static final double SMOOTHING = 0.2;
+
+	/** Delay before retrying to drain a full write buffer (in milliseconds). */
+	private static final long RETRY_DELAY = 20L;
+
+	/** Average serialized message sizes, mapped to message types. */
+	private static final ConcurrentHashMap<Class<?>, Double> SIZES = new ConcurrentHashMap<>();
+
+	/** Serializers of the drain tasks (used to check the serialized size of message batches). */
+	private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> {
+		Kryo kryo = new Kryo();
+		Registry.register(kryo);
+		return kryo;
+	});
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Owner client. */
+	private final AnalysisClient client_;
+
+	/** Connection to write messages. */
+	private final TransportConnection connection_;
+
+	/** Queued messages. */
+	private final ArrayDeque<Entry> queue_ = new ArrayDeque<>();
+
+	/** Queued (unwritten) progress messages, mapped to listener hash codes. */
+	private final HashMap<Integer, Entry> progress_ = new HashMap<>();
+
+	/** Deferred progress messages, mapped to listener hash codes. */
+	private final HashMap<Integer, AnalysisProgress> deferred_ = new HashMap<>();
+
+	/** Times of the last queued progress messages, mapped to listener hash codes. */
+	private final HashMap<Integer, Long> lastProgress_ = new HashMap<>();
+
+	/** Linger time before draining for batching clients (in milliseconds), or 0 if batching is disabled. */
+	private final long batchLinger_;
+
+	/** Maximum estimated size of message batches (in bytes). */
+	private final int batchSize_;
+
+	/** Minimum size of messages to compress (in bytes), or 0 if compression is disabled. */
+	private final int compressionThreshold_;
+
+	/** Maximum TCP write buffer usage to continue writing (in bytes), object buffer size of the connection (in bytes). */
+	private final int writeThreshold_, objectBuffer_;
+
+	/** Serialized size of queued messages in bytes (estimated for small messages). */
+	private long size_ = 0L;
+
+	/** Number of dropped messages since the queue was last below its size. */
+	private int dropped_ = 0;
+
+	/** True if a drain task is scheduled or running. */
+	private boolean isDraining_ = false;
+
+	/** True if the queue is closed. */
+	private boolean isClosed_ = false;
+
+	/**
+	 * Creates outbound queue.
+	 *
+	 * @param server
+	 *            Server instance.
+	 * @param client
+	 *            Owner client.
+	 * @param connection
+	 *            Connection to write messages.
+	 */
+	OutboundQueue(AnalysisServer server, AnalysisClient client, TransportConnection connection) {
+		server_ = server;
+		client_ = client;
+		connection_ = connection;
+		batchLinger_ = server_.getProperties().getProperty("ns.batching").equals("yes") ? Long.parseLong(server_.getProperties().getProperty("ns.batchLinger")) : 0L;
+		batchSize_ = Integer.parseInt(server_.getProperties().getProperty("ns.batchSize"));
+		compressionThreshold_ = server_.getProperties().getProperty("ns.compression").equals("yes") ? Integer.parseInt(server_.getProperties().getProperty("ns.compressionThreshold")) : 0;
+		objectBuffer_ = Integer.parseInt(server_.getProperties().getProperty("ns.objectBuffer"));
+		writeThreshold_ = Integer.parseInt(server_.getProperties().getProperty("ns.writeBuffer")) - objectBuffer_;
+	}
+
+	/**
+	 * Adds given message to the queue. This method never blocks.
+	 *
+	 * @param message
+	 *            Message to add.
+	 * @return True if the message is queued, false if it is dropped.
+	 */
+	boolean add(NetworkMessage message) {
+
+		// progress message
+		if (message instanceof AnalysisProgress) {
+			AnalysisProgress progress = (AnalysisProgress) message;
+			int listener = progress.getListenerHashCode();
+			long delay;
+			synchronized (this) {
+
+				// closed
+				if (isClosed_)
+					return false;
+
+				// replace unwritten progress of the same listener
+				Entry queued = progress_.get(listener);
+				if (queued != null) {
+					queued.message_ = progress;
+					return true;
+				}
+
+				// not within minimum interval
+				long now = System.currentTimeMillis();
+				long interval = server_.getConfig().getProgressInterval();
+				Long last = lastProgress_.get(listener);
+				if (last == null || now - last >= interval) {
+					lastProgress_.put(listener, now);
+					delay = 0L;
+				}
+
+				// defer (replaces previously deferred progress)
+				else {
+					if (deferred_.put(listener, progress) != null)
+						return true;
+					delay = last + interval - now;
+				}
+			}
+
+			// send now
+			if (delay == 0L)
+				return sendProgress(progress);
+
+			// schedule release of deferred progress
+			try {
+				server_.getScheduledThreadPool().schedule(() -> releaseDeferred(listener), delay, TimeUnit.MILLISECONDS);
+				return true;
+			}
+
+			// server is shutting down
+			catch (RejectedExecutionException e) {
+				synchronized (this) {
+					deferred_.remove(listener);
+				}
+				return false;
+			}
+		}
+
+		// completion or failure message (discard deferred progress of the listener)
+		if (message instanceof AnalysisComplete || message instanceof AnalysisFailed) {
+			int listener = ((AnalysisMessage) message).getListenerHashCode();
+			synchronized (this) {
+				deferred_.remove(listener);
+				lastProgress_.remove(listener);
+			}
+		}
+
+		// queue message
+		return enqueue(message);
+	}
+
+	/**
+	 * Queues the deferred progress message of the given listener (if any).
+	 *
+	 * @param listener
+	 *            Listener hash code.
+	 */
+	private void releaseDeferred(int listener) {
+		AnalysisProgress progress;
+		synchronized (this) {
+			progress = deferred_.remove(listener);
+			if (progress == null)
+				return;
+			lastProgress_.put(listener, System.currentTimeMillis());
+		}
+		sendProgress(progress);
+	}
+
+	/**
+	 * Sends given progress message over UDP if the client has a UDP channel, otherwise adds it to the queue.
+	 *
+	 * @param progress
+	 *            Progress message.
+	 * @return True if the message is sent or queued.
+	 */
+	private boolean sendProgress(AnalysisProgress progress) {
+
+		// send over UDP
+		if (connection_.getRemoteAddressUDP() != null) {
+			try {
+				connection_.sendUDP(progress);
+				return true;
+			}
+
+			// exception occurred during sending (fall back to TCP)
+			catch (Exception e) {
+				server_.getLogger().log(Level.FINE, "Cannot send progress message over UDP to client '" + client_.getAlias() + "'.", e);
+			}
+		}
+
+		// add to queue
+		return enqueue(progress);
+	}
+
+	/**
+	 * Adds given message to the end of the queue and schedules the drain task if necessary.
+	 *
+	 * @param message
+	 *            Message to add.
+	 * @return True if the message is queued, false if it is dropped.
+	 */
+	private boolean enqueue(NetworkMessage message) {
+
+		// get size
+		int size = sizeOf(message);
+		ServerConfig config = server_.getConfig();
+
+		boolean isLimitExceeded;
+		synchronized (this) {
+
+			// closed
+			if (isClosed_)
+				return false;
+
+			// queue full (drop progress messages)
+			if (size_ + size > config.getQueueSize() && message instanceof AnalysisProgress) {
+				if (dropped_++ == 0) {
+					server_.getLogger().info("Outbound queue of client '" + client_.getAlias() + "' is full. Dropping progress messages.");
+				}
+				return false;
+			}
+
+			// queue limit not exceeded
+			isLimitExceeded = size_ + size > config.getQueueLimit();
+			if (!isLimitExceeded) {
+
+				// add to queue
+				Entry entry = new Entry(message, size);
+				queue_.add(entry);
+				size_ += size;
+				if (message instanceof AnalysisProgress) {
+					progress_.put(((AnalysisProgress) message).getListenerHashCode(), entry);
+				}
+				if (size_ <= config.getQueueSize()) {
+					dropped_ = 0;
+				}
+
+				// drain task already scheduled
+				if (isDraining_)
+					return true;
+				isDraining_ = true;
+			}
+		}
+
+		// queue limit exceeded (client is not consuming messages, disconnect outside the lock since closing runs the disconnection listeners)
+		if (isLimitExceeded) {
+			server_.getLogger().warning("Outbound queue limit of client '" + client_.getAlias() + "' exceeded. Disconnecting client.");
+			client_.connectionClosed();
+			connection_.close();
+			return false;
+		}
+
+		// schedule drain task (linger to collect a batch)
+		return schedule(isBatching() ? batchLinger_ : 0L);
+	}
+
+	/**
+	 * Closes the queue. Queued messages are discarded, except analysis results (see <code>ResultMailbox.isResult</code>) which are returned so that they can be kept for a reconnecting client.
+	 *
+	 * @return Queued analysis results.
+	 */
+	synchronized List<AnalysisMessage> close() {
+		List<AnalysisMessage> results = new ArrayList<>();
+		for (Entry entry : queue_) {
+			if (ResultMailbox.isResult(entry.message_)) {
+				results.add((AnalysisMessage) entry.message_);
+			}
+		}
+		isClosed_ = true;
+		queue_.clear();
+		progress_.clear();
+		deferred_.clear();
+		lastProgress_.clear();
+		size_ = 0L;
+		return results;
+	}
+
+	/**
+	 * Returns the estimated serialized size of queued messages in bytes.
+	 *
+	 * @return The estimated serialized size of queued messages in bytes.
+	 */
+	synchronized long getSize() {
+		return size_;
+	}
+
+	/**
+	 * Schedules the drain task.
+	 *
+	 * @param delay
+	 *            Delay in milliseconds.
+	 * @return True if the drain task is scheduled.
+	 */
+	private boolean schedule(long delay) {
+		try {
+			if (delay <= 0L) {
+				server_.getThreadPool().submit(this::drain);
+			}
+			else {
+				server_.getScheduledThreadPool().schedule(() -> server_.getThreadPool().submit(this::drain), delay, TimeUnit.MILLISECONDS);
+			}
+			return true;
+		}
+
+		// server is shutting down
+		catch (RejectedExecutionException e) {
+			synchronized (this) {
+				isDraining_ = false;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Writes queued messages to the connection as long as the TCP write buffer has room. Big messages are streamed as partial messages, while streaming the drain task waits for room in the write buffer.
+	 */
+	private void drain() {
+
+		// loop over queued messages
+		while (true) {
+
+			// get next message
+			Entry entry;
+			NetworkMessage message;
+			synchronized (this) {
+
+				// queue empty or connection closed
+				entry = queue_.peek();
+				if (entry == null || !connection_.isConnected()) {
+					isDraining_ = false;
+					message = null;
+				}
+
+				// write buffer full (retry later)
+				else if (connection_.getTcpWriteBufferSize() > writeThreshold_)
+					break;
+
+				// remove from queue
+				else {
+					message = poll();
+				}
+
+				// bundle following small messages
+				if (message != null && isBatching() && isBatchable(message)) {
+					AnalysisMessageBatch batch = null;
+					int batchSize = entry.size_;
+					Entry next;
+					while ((next = queue_.peek()) != null && isBatchable(next.message_) && batchSize + next.size_ <= batchSize_) {
+						if (batch == null) {
+							batch = new AnalysisMessageBatch();
+							batch.add((AnalysisMessage) message);
+						}
+						batch.add((AnalysisMessage) poll());
+						batchSize += next.size_;
+					}
+					if (batch != null) {
+						message = batch;
+					}
+				}
+			}
+
+			// queue empty or connection closed (queued results are kept for a reconnecting client, outside the lock since the mailbox may be accessed)
+			if (message == null) {
+				if (entry != null) {
+					client_.connectionClosed();
+				}
+				return;
+			}
+
+			// batch doesn't fit object buffer (estimated sizes too small), send bundled messages one by one
+			if (message instanceof AnalysisMessageBatch && !fitsObjectBuffer(message)) {
+				for (AnalysisMessage bundled : ((AnalysisMessageBatch) message).getMessages()) {
+					write(bundled);
+				}
+			}
+
+			// write message
+			else {
+				write(message);
+			}
+		}
+
+		// retry later
+		schedule(RETRY_DELAY);
+	}
+
+	/**
+	 * Writes given message to the connection. The message is compressed if applicable, and big messages are streamed as partial messages. Analysis results (see <code>ResultMailbox.isResult</code>) which cannot be written are kept in the result mailbox of the client alias.
+	 *
+	 * @param message
+	 *            Message to write.
+	 */
+	private void write(NetworkMessage message) {
+
+		int bytes = 0;
+		try {
+
+			// compress
+			NetworkMessage out = message;
+			CompressedMessage compressed = compress(message);
+			if (compressed != null) {
+				out = compressed;
+				client_.recordCompression(compressed.getLength(), compressed.getData().length);
+				SIZES.merge(message.getClass(), (double) compressed.getLength(), OutboundQueue::smooth);
+			}
+
+			// send (big messages are streamed as partial messages)
+			if (out instanceof BigMessage && ((BigMessage) out).isReallyBig()) {
+				bytes = ChunkedMessageWriter.write(connection_, writeThreshold_, (BigMessage) out);
+			}
+			else {
+				bytes = connection_.sendTCP(out);
+			}
+			if (bytes > 0 && message instanceof AnalysisMessageBatch) {
+				double average = (double) bytes / ((AnalysisMessageBatch) message).getMessages().size();
+				for (AnalysisMessage bundled : ((AnalysisMessageBatch) message).getMessages()) {
+					SIZES.merge(bundled.getClass(), average, OutboundQueue::smooth);
+				}
+			}
+			else if (bytes > 0 && compressed == null) {
+				SIZES.merge(message.getClass(), (double) bytes, OutboundQueue::smooth);
+			}
+		}
+
+		// exception occurred during sending message
+		catch (Exception e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during sending message to client '" + client_.getAlias() + "'.", e);
+		}
+
+		// message not sent (keep results for reconnecting client)
+		if (bytes <= 0) {
+			keep(message);
+		}
+	}
+
+	/**
+	 * Keeps the analysis results of the given unsent message (or message batch) in the result mailbox of the client alias.
+	 *
+	 * @param message
+	 *            Unsent message.
+	 */
+	private void keep(NetworkMessage message) {
+
+		// message batch
+		if (message instanceof AnalysisMessageBatch) {
+			for (AnalysisMessage bundled : ((AnalysisMessageBatch) message).getMessages()) {
+				keep(bundled);
+			}
+		}
+
+		// analysis result
+		else if (ResultMailbox.isResult(message)) {
+			server_.getResultMailbox().put(client_.getAlias(), (AnalysisMessage) message);
+		}
+	}
+
+	/**
+	 * Returns true if the given message fits the object buffer of the connection when serialized. The connection is closed by the network library if a message doesn't fit.
+	 *
+	 * @param message
+	 *            Message to check.
+	 * @return True if the given message fits the object buffer.
+	 */
+	private boolean fitsObjectBuffer(NetworkMessage message) {
+		try {
+			KRYO.get().writeClassAndObject(new Output(objectBuffer_), message);
+			return true;
+		}
+
+		// buffer overflow
+		catch (KryoException e) {
+			server_.getLogger().fine("Message batch to client '" + client_.getAlias() + "' exceeds object buffer. Sending messages one by one.");
+			return false;
+		}
+	}
+
+	/**
+	 * Removes the head of the queue. Must be called while holding the lock of this queue.
+	 *
+	 * @return The message of the removed entry.
+	 */
+	private NetworkMessage poll() {
+		Entry entry = queue_.poll();
+		size_ -= entry.size_;
+		if (entry.message_ instanceof AnalysisProgress) {
+			progress_.remove(((AnalysisProgress) entry.message_).getListenerHashCode(), entry);
+		}
+		return entry.message_;
+	}
+
+	/**
+	 * Returns true if messages to the client are batched.
+	 *
+	 * @return True if messages to the client are batched.
+	 */
+	private boolean isBatching() {
+		return batchLinger_ > 0L && client_.hasCapability(HandshakeWithAnalysisServer.BATCHING);
+	}
+
+	/**
+	 * Returns true if the given message can be bundled into a message batch.
+	 *
+	 * @param message
+	 *            Message to check.
+	 * @return True if the given message can be bundled.
+	 */
+	private static boolean isBatchable(NetworkMessage message) {
+		if (message instanceof HandshakeWithAnalysisServer || !(message instanceof AnalysisMessage))
+			return false;
+		return !(message instanceof BigMessage && ((BigMessage) message).isReallyBig());
+	}
+
+	/**
+	 * Compresses given message if the client negotiated compression and the message is expected to be larger than the compression threshold. The compressed bytes are built in memory as a whole, so that big messages sent compressed are not streamed with constant memory (see {@link ChunkedMessageWriter}).
+	 *
+	 * @param message
+	 *            Message to compress.
+	 * @return Compressed message, or null if the message should be sent uncompressed.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private CompressedMessage compress(NetworkMessage message) throws Exception {
+
+		// compression not negotiated
+		if (compressionThreshold_ <= 0 || !client_.hasCapability(HandshakeWithAnalysisServer.COMPRESSION))
+			return null;
+
+		// expected to be small
+		boolean isBig = message instanceof BigMessage && ((BigMessage) message).isReallyBig();
+		if (!isBig && estimateSize(message.getClass()) < compressionThreshold_)
+			return null;
+
+		// compress (send uncompressed if small or not compressible)
+		CompressedMessage compressed = Compression.compress(message);
+		if (compressed.getLength() < compressionThreshold_ || compressed.getData().length >= compressed.getLength())
+			return null;
+		return compressed;
+	}
+
+	/**
+	 * Returns the serialized size of the given message. The size of big messages is counted, the size of other messages is estimated from the average size of their type.
+	 *
+	 * @param message
+	 *            Message.
+	 * @return The serialized size in bytes.
+	 */
+	private int sizeOf(NetworkMessage message) {
+
+		// estimate size
+		if (!(message instanceof BigMessage))
+			return estimateSize(message.getClass());
+
+		// count size
+		try {
+			return (int) Math.min(Integer.MAX_VALUE, ChunkedMessageWriter.count((BigMessage) message));
+		}
+
+		// exception occurred during counting (use estimate)
+		catch (Exception e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during counting serialized size of message for client '" + client_.getAlias() + "'.", e);
+			return estimateSize(message.getClass());
+		}
+	}
+
+	/**
+	 * Returns the estimated serialized size of the given message type.
+	 *
+	 * @param type
+	 *            Message type.
+	 * @return The estimated serialized size in bytes.
+	 */
+	private static int estimateSize(Class<?> type) {
+		return SIZES.getOrDefault(type, (double) DEFAULT_SIZE).intValue();
+	}
+
+	/**
+	 * Returns exponentially smoothed average of the given values.
+	 *
+	 * @param previous
+	 *            Previous average.
+	 * @param latest
+	 *            Latest observation.
+	 * @return The updated average.
+	 */
+	private static Double smooth(Double previous, Double latest) {
+		return (1.0 - SMOOTHING) * previous + SMOOTHING * latest;
+	}
+
+	/**
+	 * Inner class for queue entry.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 11:31:54
+	 */
+	private static final class Entry {
+
+		/** Queued message. Progress messages can be replaced while queued. */
+		private NetworkMessage message_;
+
+		/** Serialized size in bytes (estimated for small messages). */
+		private final int size_;
+
+		/**
+		 * Creates queue entry.
+		 *
+		 * @param message
+		 *            Queued message.
+		 * @param size
+		 *            Estimated serialized size in bytes.
+		 */
+		private Entry(NetworkMessage message, int size) {
+			message_ = message;
+			size_ = size;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.client;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import equinox.analysisServer.server.AnalysisServer;
+import equinox.serverUtilities.PartialMessage;
+
+/**
+ * Class for partial message reassembly buffer of a client. Fragments of split messages may arrive concurrently (they are dispatched on the server thread pool), so fragment sets are kept in a concurrent map and each set counts its received fragments.
+ * <p>
+ * Memory usage is bounded by a per-client and a server-wide byte budget. The fragment array of a set is charged to the budgets before the set is created, and messages with more fragments than the client budget can hold are rejected. Fragment sets which don't receive any fragment within the expiry period are discarded.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 13:12:45
+ */
+final class ReassemblyBuffer {
+
+	/** Size of an object reference in bytes (upper bound, used to charge fragment arrays to the budgets). */
+	private static final long REFERENCE_SIZE = 8L;
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Owner client. */
+	private final AnalysisClient client_;
+
+	/** Incomplete fragment sets, mapped to message IDs. */
+	private final ConcurrentHashMap<Integer, FragmentSet> sets_ = new ConcurrentHashMap<>();
+
+	/** Bytes held by this client. */
+	private final AtomicLong bytes_ = new AtomicLong();
+
+	/** Per-client and server-wide byte budgets. */
+	private final long clientBudget_, serverBudget_;
+
+	/** Expiry period of fragment sets in milliseconds. */
+	private final long expiry_;
+
+	/**
+	 * Creates reassembly buffer.
+	 *
+	 * @param server
+	 *            Server instance.
+	 * @param client
+	 *            Owner client.
+	 */
+	ReassemblyBuffer(AnalysisServer server, AnalysisClient client) {
+		server_ = server;
+		client_ = client;
+		clientBudget_ = Long.parseLong(server_.getProperties().getProperty("ns.partialClientBudget"));
+		serverBudget_ = Long.parseLong(server_.getProperties().getProperty("ns.partialServerBudget"));
+		expiry_ = TimeUnit.SECONDS.toMillis(Long.parseLong(server_.getProperties().getProperty("ns.partialExpiry")));
+	}
+
+	/**
+	 * Adds given fragment to its fragment set.
+	 *
+	 * @param part
+	 *            Fragment to add.
+	 * @return All fragments of the message if the given fragment completes its set, null otherwise.
+	 * @throws Exception
+	 *             If the fragment is invalid or the byte budget is exceeded.
+	 */
+	PartialMessage[] add(PartialMessage part) throws Exception {
+
+		// check fragment
+		int id = part.getID(), numParts = part.getNumParts(), index = part.getIndex();
+		if (numParts <= 0 || index < 0 || index >= numParts)
+			throw new Exception("Invalid partial message received from client '" + client_.getAlias() + "' (index " + index + " of " + numParts + ").");
+		long size = part.getData() == null ? 0L : part.getData().length;
+
+		// too many fragments for the client budget
+		if (numParts > clientBudget_ / ChunkedMessageWriter.PART_SIZE + 1)
+			throw new Exception("Partial message " + id + " received from client '" + client_.getAlias() + "' has too many fragments (" + numParts + ").");
+
+		// get fragment set (fragment array is charged to the budgets before the set is created)
+		FragmentSet set = sets_.computeIfAbsent(id, key -> reserve(numParts * REFERENCE_SIZE) ? new FragmentSet(numParts) : null);
+		if (set == null)
+			throw new Exception("Partial message budget exceeded for client '" + client_.getAlias() + "'. Message " + id + " discarded.");
+
+		synchronized (set) {
+
+			// set already completed or discarded
+			if (set.isClosed_)
+				return null;
+
+			// number of parts mismatch
+			if (set.parts_.length != numParts) {
+				discard(id, set);
+				throw new Exception("Inconsistent partial message " + id + " received from client '" + client_.getAlias() + "'. Message discarded.");
+			}
+
+			// duplicate fragment
+			set.lastUpdate_ = System.currentTimeMillis();
+			if (set.parts_[index] != null)
+				return null;
+
+			// reserve budgets
+			if (!reserve(size)) {
+				discard(id, set);
+				throw new Exception("Partial message budget exceeded for client '" + client_.getAlias() + "'. Message " + id + " discarded.");
+			}
+
+			// add fragment
+			set.parts_[index] = part;
+			set.bytes_ += size;
+
+			// not completed yet
+			if (++set.received_ < numParts)
+				return null;
+
+			// completed
+			discard(id, set);
+			return set.parts_;
+		}
+	}
+
+	/**
+	 * Reserves given number of bytes from the client and server budgets.
+	 *
+	 * @param size
+	 *            Number of bytes to reserve.
+	 * @return True if the bytes are reserved, false if a budget would be exceeded (nothing is reserved).
+	 */
+	private boolean reserve(long size) {
+		if (bytes_.addAndGet(size) > clientBudget_ | server_.getPartialMessageBytes().addAndGet(size) > serverBudget_) {
+			bytes_.addAndGet(-size);
+			server_.getPartialMessageBytes().addAndGet(-size);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Discards fragment sets which didn't receive any fragment within the expiry period.
+	 *
+	 * @return Number of discarded fragment sets.
+	 */
+	int expire() {
+		int expired = 0;
+		long now = System.currentTimeMillis();
+		Iterator<Map.Entry<Integer, FragmentSet>> iterator = sets_.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Integer, FragmentSet> entry = iterator.next();
+			FragmentSet set = entry.getValue();
+			synchronized (set) {
+				if (!set.isClosed_ && now - set.lastUpdate_ > expiry_) {
+					discard(entry.getKey(), set);
+					expired++;
+				}
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * Discards all fragment sets.
+	 */
+	void clear() {
+		for (Map.Entry<Integer, FragmentSet> entry : sets_.entrySet()) {
+			FragmentSet set = entry.getValue();
+			synchronized (set) {
+				if (!set.isClosed_) {
+					discard(entry.getKey(), set);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes given fragment set and releases its bytes. Must be called while holding the lock of the set.
+	 *
+	 * @param id
+	 *            Message ID.
+	 * @param set
+	 *            Fragment set.
+	 */
+	private void discard(int id, FragmentSet set) {
+		set.isClosed_ = true;
+		sets_.remove(id, set);
+		bytes_.addAndGet(-set.bytes_);
+		server_.getPartialMessageBytes().addAndGet(-set.bytes_);
+		set.bytes_ = 0L;
+	}
+
+	/**
+	 * Inner class for fragment set of a split message.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 13:26:10
+	 */
+	private static final class FragmentSet {
+
+		/** Fragments. */
+		private final PartialMessage[] parts_;
+
+		/** Number of received fragments. */
+		private int received_ = 0;
+
+		/** Bytes held by this set (including the fragment array). */
+		private long bytes_;
+
+		/** Time of the last received fragment in milliseconds. */
+		private long lastUpdate_ = System.currentTimeMillis();
+
+		/** True if the set is completed or discarded. */
+		private boolean isClosed_ = false;
+
+		/**
+		 * Creates fragment set.
+		 *
+		 * @param numParts
+		 *            Number of fragments.
+		 */
+		private FragmentSet(int numParts) {
+			parts_ = new PartialMessage[numParts];
+			bytes_ = numParts * REFERENCE_SIZE;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+/**
+ * Class for typical ISAMI report results.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 21:41:19
+ */
+public final class IsamiReport {
+
+	/** Validity (number of flights) and total number of cycles. */
+	int validity_ = -1, totalCycles_ = -1;
+
+	/** Rain-flow summary values. */
+	double minStress_ = -1.0, maxStress_ = -1.0, rRatio_ = -1.0;
+
+	/** Equivalent stresses. */
+	double fatigueStress_ = -1.0, propagationStress_ = -1.0;
+
+	/**
+	 * Creates ISAMI report results. Instances are created by {@link IsamiReportParser}.
+	 */
+	IsamiReport() {
+	}
+
+	/**
+	 * Returns validity (total number of flights).
+	 *
+	 * @return Validity, or -1 if not found.
+	 */
+	public int getValidity() {
+		return validity_;
+	}
+
+	/**
+	 * Returns total number of cycles.
+	 *
+	 * @return Total number of cycles, or -1 if not found.
+	 */
+	public int getTotalCycles() {
+		return totalCycles_;
+	}
+
+	/**
+	 * Returns minimum stress.
+	 *
+	 * @return Minimum stress, or -1 if not found.
+	 */
+	public double getMinimumStress() {
+		return minStress_;
+	}
+
+	/**
+	 * Returns maximum stress.
+	 *
+	 * @return Maximum stress, or -1 if not found.
+	 */
+	public double getMaximumStress() {
+		return maxStress_;
+	}
+
+	/**
+	 * Returns R ratio.
+	 *
+	 * @return R ratio, or -1 if not found.
+	 */
+	public double getRRatio() {
+		return rRatio_;
+	}
+
+	/**
+	 * Returns fatigue equivalent stress.
+	 *
+	 * @return Fatigue equivalent stress, or -1 if not found.
+	 */
+	public double getFatigueEquivalentStress() {
+		return fatigueStress_;
+	}
+
+	/**
+	 * Returns propagation equivalent stress.
+	 *
+	 * @return Propagation equivalent stress, or -1 if not found.
+	 */
+	public double getPropagationEquivalentStress() {
+		return propagationStress_;
+	}
+}
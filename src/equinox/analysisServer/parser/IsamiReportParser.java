@@ -0,0 +1,391 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Utility class for parsing ISAMI HTML and CSV reports. Reports are tokenized in a single streaming pass with bounded token buffers, so that reports of any size are parsed in constant memory.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 21:47:02
+ */
+public final class IsamiReportParser {
+
+	/** Maximum number of characters kept per token. Longer tokens are truncated. */
+	private static final int MAX_TOKEN = 1024;
+
+	/** HTML section states. */
+	private static final int NONE = 0, FATIGUE = 1, PROPAGATION = 2;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private IsamiReportParser() {
+	}
+
+	/**
+	 * Parses given ISAMI HTML report. Rain-flow summary, fatigue and propagation equivalent stresses are extracted (the first occurrence of each is taken).
+	 *
+	 * @param htmlFile
+	 *            HTML report file.
+	 * @return Report results.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static IsamiReport parseHtml(Path htmlFile) throws Exception {
+
+		// create results
+		IsamiReport report = new IsamiReport();
+
+		// create tokenizer
+		try (Tokenizer tokenizer = new Tokenizer(Files.newBufferedReader(htmlFile, Charset.defaultCharset()))) {
+
+			// initialize state
+			int section = NONE;
+			boolean isValuesRow = false, isStressRow = false, isCell = false;
+			int cell = -1;
+
+			// loop over tokens
+			int type;
+			while ((type = tokenizer.nextHtmlToken()) != Tokenizer.END) {
+
+				// tag
+				StringBuilder token = tokenizer.token_;
+				if (type == Tokenizer.TAG) {
+
+					// table cell
+					if (startsWithIgnoreCase(token, "TD")) {
+						cell++;
+						isCell = true;
+					}
+
+					// end of cell
+					else if (startsWithIgnoreCase(token, "/TD")) {
+						isCell = false;
+					}
+
+					// end of row
+					else if (startsWithIgnoreCase(token, "/TR")) {
+						isValuesRow = false;
+						isStressRow = false;
+						isCell = false;
+					}
+					continue;
+				}
+
+				// cell text of rain-flow values row
+				if (isValuesRow && isCell) {
+					if (cell == 0) {
+						report.minStress_ = parseDouble(token);
+					}
+					else if (cell == 1) {
+						report.maxStress_ = parseDouble(token);
+					}
+					else if (cell == 4) {
+						report.rRatio_ = parseDouble(token);
+					}
+					else if (cell == 5) {
+						report.totalCycles_ = (int) parseDouble(token);
+					}
+				}
+
+				// cell text of equivalent stress row
+				else if (isStressRow && isCell) {
+					if (section == FATIGUE && report.fatigueStress_ == -1.0) {
+						report.fatigueStress_ = parseDouble(token);
+					}
+					else if (section == PROPAGATION && report.propagationStress_ == -1.0) {
+						report.propagationStress_ = parseDouble(token);
+					}
+					isStressRow = false;
+				}
+
+				// validity
+				else if (report.validity_ == -1 && token.indexOf("Total Number of Flights:") != -1) {
+					report.validity_ = (int) parseDouble(token.substring(token.indexOf(":") + 1));
+				}
+
+				// rain-flow values row
+				else if (report.validity_ != -1 && report.totalCycles_ == -1 && token.indexOf("Values") != -1) {
+					isValuesRow = true;
+					cell = -1;
+				}
+
+				// sections
+				else if (token.indexOf("FATIGUE RESULTS:") != -1) {
+					section = FATIGUE;
+				}
+				else if (token.indexOf("MISSION PROPAGATION RESULTS") != -1) {
+					section = PROPAGATION;
+				}
+
+				// equivalent stress row
+				else if (section != NONE && token.indexOf("EQUIVALENT STRESS") != -1) {
+					isStressRow = true;
+					cell = -1;
+				}
+			}
+		}
+
+		// return results
+		return report;
+	}
+
+	/**
+	 * Parses given ISAMI CSV report. Fatigue and propagation equivalent stresses are extracted (the first occurrence of each is taken).
+	 *
+	 * @param csvFile
+	 *            CSV report file.
+	 * @return Report results.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static IsamiReport parseCsv(Path csvFile) throws Exception {
+
+		// create results
+		IsamiReport report = new IsamiReport();
+
+		// create tokenizer
+		try (Tokenizer tokenizer = new Tokenizer(Files.newBufferedReader(csvFile, Charset.defaultCharset()))) {
+
+			// loop over lines
+			int section = NONE;
+			while (tokenizer.nextCsvLine()) {
+
+				// sections
+				StringBuilder first = tokenizer.token_;
+				if (startsWith(first, "FATIGUE INITIATION RESULTS")) {
+					section = FATIGUE;
+				}
+				else if (startsWith(first, "PROPAGATION RESULTS")) {
+					section = PROPAGATION;
+				}
+
+				// equivalent stress
+				else if (section != NONE && first.indexOf("Equivalent stress") != -1) {
+					if (section == FATIGUE && report.fatigueStress_ == -1.0) {
+						report.fatigueStress_ = parseDouble(tokenizer.second_);
+					}
+					else if (section == PROPAGATION && report.propagationStress_ == -1.0) {
+						report.propagationStress_ = parseDouble(tokenizer.second_);
+					}
+					section = NONE;
+				}
+			}
+		}
+
+		// return results
+		return report;
+	}
+
+	/**
+	 * Parses the trimmed number in the given text.
+	 *
+	 * @param text
+	 *            Text.
+	 * @return The parsed number.
+	 * @throws NumberFormatException
+	 *             If the text is not a valid number.
+	 */
+	private static double parseDouble(CharSequence text) throws NumberFormatException {
+		return Double.parseDouble(text.toString().trim());
+	}
+
+	/**
+	 * Returns true if the trimmed text starts with the given prefix.
+	 *
+	 * @param text
+	 *            Text.
+	 * @param prefix
+	 *            Prefix.
+	 * @return True if the trimmed text starts with the given prefix.
+	 */
+	private static boolean startsWith(StringBuilder text, String prefix) {
+		int start = 0;
+		while (start < text.length() && text.charAt(start) <= ' ') {
+			start++;
+		}
+		return text.length() - start >= prefix.length() && text.indexOf(prefix, start) == start;
+	}
+
+	/**
+	 * Returns true if the given tag text starts with the given tag name (case insensitive), followed by the end of tag or an attribute.
+	 *
+	 * @param tag
+	 *            Tag text (without angle brackets).
+	 * @param name
+	 *            Tag name.
+	 * @return True if the given tag text starts with the given tag name.
+	 */
+	private static boolean startsWithIgnoreCase(StringBuilder tag, String name) {
+		if (tag.length() < name.length())
+			return false;
+		for (int i = 0; i < name.length(); i++) {
+			if (Character.toUpperCase(tag.charAt(i)) != name.charAt(i))
+				return false;
+		}
+		return tag.length() == name.length() || tag.charAt(name.length()) <= ' ';
+	}
+
+	/**
+	 * Inner class for streaming report tokenizer. Token buffers are reused and bounded to {@link IsamiReportParser#MAX_TOKEN} characters.
+	 *
+	 * @author Murat Artim
+	 * @date 18 Oct 2026
+	 * @time 21:55:40
+	 */
+	private static final class Tokenizer implements AutoCloseable {
+
+		/** Token types. */
+		private static final int END = 0, TAG = 1, TEXT = 2;
+
+		/** Report reader. */
+		private final Reader reader_;
+
+		/** Current token (HTML tag/text or first CSV field) and second CSV field. */
+		private final StringBuilder token_ = new StringBuilder(), second_ = new StringBuilder();
+
+		/** Pushed back character, or -1 if none. */
+		private int pushBack_ = -1;
+
+		/**
+		 * Creates tokenizer.
+		 *
+		 * @param reader
+		 *            Report reader.
+		 */
+		private Tokenizer(BufferedReader reader) {
+			reader_ = reader;
+		}
+
+		/**
+		 * Reads the next HTML token. Tag tokens contain the tag text without angle brackets. Whitespace only texts are skipped.
+		 *
+		 * @return Token type.
+		 * @throws Exception
+		 *             If exception occurs during process.
+		 */
+		private int nextHtmlToken() throws Exception {
+
+			// loop till a token is found
+			while (true) {
+
+				// end of file
+				token_.setLength(0);
+				int c = read();
+				if (c == -1)
+					return END;
+
+				// tag
+				if (c == '<') {
+					while ((c = read()) != -1 && c != '>') {
+						append(token_, c);
+					}
+					return TAG;
+				}
+
+				// text
+				boolean isBlank = true;
+				do {
+					isBlank &= c <= ' ';
+					append(token_, c);
+				}
+				while ((c = read()) != -1 && c != '<');
+				pushBack_ = c;
+				if (!isBlank)
+					return TEXT;
+			}
+		}
+
+		/**
+		 * Reads the next CSV line. Only the first two fields (separated by ';') are kept.
+		 *
+		 * @return False if end of file is reached.
+		 * @throws Exception
+		 *             If exception occurs during process.
+		 */
+		private boolean nextCsvLine() throws Exception {
+
+			// reset fields
+			token_.setLength(0);
+			second_.setLength(0);
+
+			// end of file
+			int c = read();
+			if (c == -1)
+				return false;
+
+			// read line
+			int field = 0;
+			for (; c != -1 && c != '\n'; c = read()) {
+				if (c == ';') {
+					field++;
+				}
+				else if (c != '\r') {
+					if (field == 0) {
+						append(token_, c);
+					}
+					else if (field == 1) {
+						append(second_, c);
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Appends given character to the given token, unless the token is full.
+		 *
+		 * @param token
+		 *            Token.
+		 * @param c
+		 *            Character.
+		 */
+		private static void append(StringBuilder token, int c) {
+			if (token.length() < MAX_TOKEN) {
+				token.append((char) c);
+			}
+		}
+
+		/**
+		 * Reads the next character.
+		 *
+		 * @return The next character, or -1 if end of file is reached.
+		 * @throws Exception
+		 *             If exception occurs during process.
+		 */
+		private int read() throws Exception {
+			if (pushBack_ != -1) {
+				int c = pushBack_;
+				pushBack_ = -1;
+				return c;
+			}
+			return reader_.read();
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader_.close();
+		}
+	}
+}
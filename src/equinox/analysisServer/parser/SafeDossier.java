@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+/**
+ * Class for typed SAFE output dossier results.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 17:34:52
+ */
+public final class SafeDossier {
+
+	/** Rain-flow column index of fatigue equivalent stress. */
+	public static final int FATIGUE = 3;
+
+	/** Rain-flow column index of preffas propagation equivalent stress. */
+	public static final int PREFFAS = 7;
+
+	/** Validity (number of flights) and total number of cycles. */
+	int validity_ = -1, totalCycles_ = -1;
+
+	/** Stress spectrum values. */
+	double minStress_ = -1.0, maxStress_ = -1.0, rRatio_ = -1.0;
+
+	/** Rain-flow equivalent stress columns. Non-numeric columns are NaN. Null if no rain-flow result found. */
+	double[] rainFlow_ = null;
+
+	/**
+	 * Creates SAFE dossier results. Instances are created by {@link SafeDossierParser}.
+	 */
+	SafeDossier() {
+	}
+
+	/**
+	 * Returns true if the spectrum summary (validity, stresses and cycles) is found in the dossier.
+	 *
+	 * @return True if the spectrum summary is found in the dossier. Always false if the summary was not requested from the parser.
+	 */
+	public boolean hasSummary() {
+		return validity_ != -1;
+	}
+
+	/**
+	 * Returns validity (total number of flights).
+	 *
+	 * @return Validity, or -1 if not found.
+	 */
+	public int getValidity() {
+		return validity_;
+	}
+
+	/**
+	 * Returns total number of cycles.
+	 *
+	 * @return Total number of cycles, or -1 if not found.
+	 */
+	public int getTotalCycles() {
+		return totalCycles_;
+	}
+
+	/**
+	 * Returns minimum stress.
+	 *
+	 * @return Minimum stress, or -1 if not found.
+	 */
+	public double getMinimumStress() {
+		return minStress_;
+	}
+
+	/**
+	 * Returns maximum stress.
+	 *
+	 * @return Maximum stress, or -1 if not found.
+	 */
+	public double getMaximumStress() {
+		return maxStress_;
+	}
+
+	/**
+	 * Returns R ratio.
+	 *
+	 * @return R ratio, or -1 if not found.
+	 */
+	public double getRRatio() {
+		return rRatio_;
+	}
+
+	/**
+	 * Returns number of rain-flow result columns.
+	 *
+	 * @return Number of rain-flow result columns, or 0 if no rain-flow result found.
+	 */
+	public int getRainFlowColumnCount() {
+		return rainFlow_ == null ? 0 : rainFlow_.length;
+	}
+
+	/**
+	 * Returns rain-flow equivalent stress at the given column. Column indices are the positions between the ':' separators of the dossier line (see {@link #FATIGUE} and {@link #PREFFAS}).
+	 *
+	 * @param column
+	 *            Column index.
+	 * @return Rain-flow equivalent stress, or -1 if not found.
+	 */
+	public double getRainFlowStress(int column) {
+		if (rainFlow_ == null || column < 0 || column >= rainFlow_.length || Double.isNaN(rainFlow_[column]))
+			return -1.0;
+		return rainFlow_[column];
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+import java.io.BufferedReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Utility class for parsing SAFE output dossier files. The dossier is read once and all results are extracted in a single pass. Fields are located by scanning for ':' separators, without regular expression splitting.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 17:41:06
+ */
+public final class SafeDossierParser {
+
+	/** Header of spectrum summary block. */
+	private static final String SUMMARY = " : Nb flight tot";
+
+	/** Header of rain-flow results block. */
+	private static final String RAIN_FLOW = " :  (Rain-Flow)";
+
+	/** Field separator. */
+	private static final char SEPARATOR = ':';
+
+	/** Maximum number of rain-flow columns. */
+	private static final int MAX_COLUMNS = 32;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SafeDossierParser() {
+	}
+
+	/**
+	 * Parses given SAFE output dossier file. If a block occurs more than once, the last occurrence is taken.
+	 *
+	 * @param dossierFile
+	 *            Output dossier file.
+	 * @param isSummaryRequired
+	 *            True if the spectrum summary is needed by the caller. The summary line is then parsed strictly (missing or invalid fields fail the parse), otherwise it is skipped.
+	 * @return Typed dossier results.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static SafeDossier parse(Path dossierFile, boolean isSummaryRequired) throws Exception {
+
+		// create results
+		SafeDossier dossier = new SafeDossier();
+
+		// create column offsets
+		int[] offsets = new int[MAX_COLUMNS + 1];
+
+		// create file reader
+		try (BufferedReader reader = Files.newBufferedReader(dossierFile, Charset.defaultCharset())) {
+
+			// read file till the end
+			String line = null;
+			while ((line = reader.readLine()) != null) {
+
+				// spectrum summary (only if needed)
+				if (isSummaryRequired && line.startsWith(SUMMARY)) {
+					line = skipLines(reader, 2);
+					if (line != null) {
+						int columns = scan(line, offsets);
+						dossier.validity_ = (int) parseField(line, offsets, columns, 1, true);
+						dossier.minStress_ = parseField(line, offsets, columns, 2, true);
+						dossier.maxStress_ = parseField(line, offsets, columns, 3, true);
+						dossier.rRatio_ = parseField(line, offsets, columns, 6, true);
+						dossier.totalCycles_ = (int) parseField(line, offsets, columns, 7, true);
+					}
+				}
+
+				// rain-flow results
+				else if (line.startsWith(RAIN_FLOW)) {
+					line = skipLines(reader, 2);
+					if (line != null) {
+						int columns = scan(line, offsets);
+						double[] rainFlow = new double[columns];
+						for (int i = 0; i < columns; i++) {
+							rainFlow[i] = parseField(line, offsets, columns, i, false);
+						}
+						dossier.rainFlow_ = rainFlow;
+					}
+				}
+			}
+		}
+
+		// return results
+		return dossier;
+	}
+
+	/**
+	 * Skips given number of lines and returns the last one read.
+	 *
+	 * @param reader
+	 *            File reader.
+	 * @param count
+	 *            Number of lines to read.
+	 * @return The last line read, or null if end of file is reached.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private static String skipLines(BufferedReader reader, int count) throws Exception {
+		String line = null;
+		for (int i = 0; i < count; i++) {
+			line = reader.readLine();
+		}
+		return line;
+	}
+
+	/**
+	 * Scans given line for field separators. Start offset of field <code>i</code> is <code>offsets[i]</code> and its end offset is <code>offsets[i + 1] - 1</code>.
+	 *
+	 * @param line
+	 *            Line to scan.
+	 * @param offsets
+	 *            Array to store the field offsets.
+	 * @return Number of fields.
+	 */
+	private static int scan(String line, int[] offsets) {
+		int columns = 0;
+		offsets[0] = 0;
+		for (int i = 0; i < line.length() && columns < MAX_COLUMNS - 1; i++) {
+			if (line.charAt(i) == SEPARATOR) {
+				offsets[++columns] = i + 1;
+			}
+		}
+		offsets[++columns] = line.length() + 1;
+		return columns;
+	}
+
+	/**
+	 * Parses the numeric value of the given field.
+	 *
+	 * @param line
+	 *            Line containing the field.
+	 * @param offsets
+	 *            Field offsets.
+	 * @param columns
+	 *            Number of fields.
+	 * @param column
+	 *            Index of field to parse.
+	 * @param isRequired
+	 *            True if the field must be numeric.
+	 * @return The numeric value of the field, or NaN if the field is not numeric and not required.
+	 * @throws NumberFormatException
+	 *             If a required field is missing or not numeric.
+	 */
+	private static double parseField(String line, int[] offsets, int columns, int column, boolean isRequired) throws NumberFormatException {
+
+		// field missing
+		if (column >= columns) {
+			if (isRequired)
+				throw new NumberFormatException("Missing field " + column + " in SAFE dossier line '" + line + "'.");
+			return Double.NaN;
+		}
+
+		// trim field
+		int start = offsets[column], end = offsets[column + 1] - 1;
+		while (start < end && line.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		// not numeric
+		if (start == end || !isNumeric(line, start, end)) {
+			if (isRequired)
+				throw new NumberFormatException("Invalid field " + column + " in SAFE dossier line '" + line + "'.");
+			return Double.NaN;
+		}
+
+		// parse
+		return Double.parseDouble(line.substring(start, end));
+	}
+
+	/**
+	 * Returns true if the given field contains only numeric characters.
+	 *
+	 * @param line
+	 *            Line containing the field.
+	 * @param start
+	 *            Start offset of the field.
+	 * @param end
+	 *            End offset of the field.
+	 * @return True if the given field contains only numeric characters.
+	 */
+	private static boolean isNumeric(String line, int start, int end) {
+		boolean hasDigit = false;
+		for (int i = start; i < end; i++) {
+			char c = line.charAt(i);
+			if (c >= '0' && c <= '9') {
+				hasDigit = true;
+			}
+			else if (c != '.' && c != '-' && c != '+' && c != 'E' && c != 'e') {
+				return false;
+			}
+		}
+		return hasDigit;
+	}
+}
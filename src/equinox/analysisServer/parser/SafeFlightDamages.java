@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+/**
+ * Class for typical flight damages extracted from SAFE output log file. Flight numbers and damages are stored in parallel primitive arrays.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 18:22:45
+ */
+public final class SafeFlightDamages {
+
+	/** Typical flight numbers. */
+	private final int[] flightNumbers_;
+
+	/** Damages of typical flights. */
+	private final double[] damages_;
+
+	/** Total damage. */
+	private final double totalDamage_;
+
+	/**
+	 * Creates typical flight damages.
+	 *
+	 * @param flightNumbers
+	 *            Typical flight numbers.
+	 * @param damages
+	 *            Damages of typical flights.
+	 * @param totalDamage
+	 *            Total damage.
+	 */
+	SafeFlightDamages(int[] flightNumbers, double[] damages, double totalDamage) {
+		flightNumbers_ = flightNumbers;
+		damages_ = damages;
+		totalDamage_ = totalDamage;
+	}
+
+	/**
+	 * Returns number of typical flights.
+	 *
+	 * @return Number of typical flights.
+	 */
+	public int size() {
+		return flightNumbers_.length;
+	}
+
+	/**
+	 * Returns typical flight numbers. The returned array is not copied.
+	 *
+	 * @return Typical flight numbers.
+	 */
+	public int[] getFlightNumbers() {
+		return flightNumbers_;
+	}
+
+	/**
+	 * Returns damages of typical flights, in the order of flight numbers. The returned array is not copied.
+	 *
+	 * @return Damages of typical flights.
+	 */
+	public double[] getDamages() {
+		return damages_;
+	}
+
+	/**
+	 * Returns total damage.
+	 *
+	 * @return Total damage.
+	 */
+	public double getTotalDamage() {
+		return totalDamage_;
+	}
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Utility class for scanning typical flight damages from SAFE output log files. The log file is memory mapped and scanned byte by byte. Numbers are parsed directly from the mapped bytes into primitive arrays, without creating intermediate strings.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 18:31:17
+ */
+public final class SafeLogScanner {
+
+	/** Header of flight results block. */
+	static final byte[] FLIGHT_RESULTS = " RESULTS FLIGHT NUMBER".getBytes(StandardCharsets.US_ASCII);
+
+	/** Number of lines between the flight results header and the damage line. */
+	static final int DAMAGE_LINE = 15;
+
+	/** Index of damage field in the damage line (fields are separated by ':'). */
+	static final int DAMAGE_FIELD = 5;
+
+	/** Initial capacity of the flight arrays. */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** Exact powers of ten, used for fast path number parsing. */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/** Largest mantissa which can be represented exactly in double precision. */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SafeLogScanner() {
+	}
+
+	/**
+	 * Scans typical flight damages from the given SAFE output log file.
+	 *
+	 * @param logFile
+	 *            Output log file.
+	 * @return Typical flight damages.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static SafeFlightDamages scanFlightDamages(Path logFile) throws Exception {
+
+		// create arrays
+		int[] flightNumbers = new int[INITIAL_CAPACITY];
+		double[] damages = new double[INITIAL_CAPACITY];
+		int size = 0;
+		double totalDamage = 0.0;
+
+		// map log file
+		try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+
+			// file too large to map
+			long fileSize = channel.size();
+			if (fileSize > Integer.MAX_VALUE)
+				throw new Exception("SAFE output log file is too large to scan: " + fileSize + " bytes.");
+
+			// map file
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, fileSize);
+			int limit = buffer.limit();
+
+			// loop over lines
+			int position = 0;
+			while (position < limit) {
+
+				// not a flight results header
+				if (!startsWith(buffer, position, limit, FLIGHT_RESULTS)) {
+					position = nextLine(buffer, position, limit);
+					continue;
+				}
+
+				// get flight number
+				int flightNumber = (int) parseNumber(buffer, position + FLIGHT_RESULTS.length, lineEnd(buffer, position, limit));
+
+				// skip to damage line
+				for (int i = 0; i < DAMAGE_LINE && position < limit; i++) {
+					position = nextLine(buffer, position, limit);
+				}
+				if (position >= limit) {
+					break;
+				}
+
+				// get damage
+				int lineEnd = lineEnd(buffer, position, limit);
+				int fieldStart = fieldStart(buffer, position, lineEnd, DAMAGE_FIELD);
+				if (fieldStart == -1)
+					throw new Exception("Cannot find flight damage in SAFE output log file for flight number " + flightNumber + ".");
+				double damage = parseNumber(buffer, fieldStart, fieldEnd(buffer, fieldStart, lineEnd));
+
+				// grow arrays
+				if (size == flightNumbers.length) {
+					flightNumbers = Arrays.copyOf(flightNumbers, size * 2);
+					damages = Arrays.copyOf(damages, size * 2);
+				}
+
+				// add flight
+				flightNumbers[size] = flightNumber;
+				damages[size] = damage;
+				totalDamage += damage;
+				size++;
+			}
+		}
+
+		// return damages
+		return new SafeFlightDamages(Arrays.copyOf(flightNumbers, size), Arrays.copyOf(damages, size), totalDamage);
+	}
+
+	/**
+	 * Returns true if the line at given position starts with the given prefix.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param position
+	 *            Start position of line.
+	 * @param limit
+	 *            End of contents.
+	 * @param prefix
+	 *            Prefix to check.
+	 * @return True if the line at given position starts with the given prefix.
+	 */
+	static boolean startsWith(ByteBuffer buffer, int position, int limit, byte[] prefix) {
+		if (limit - position < prefix.length)
+			return false;
+		for (int i = 0; i < prefix.length; i++) {
+			if (buffer.get(position + i) != prefix[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the end position (exclusive) of the line at given position, excluding line terminators.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param position
+	 *            Start position of line.
+	 * @param limit
+	 *            End of contents.
+	 * @return The end position of the line.
+	 */
+	static int lineEnd(ByteBuffer buffer, int position, int limit) {
+		int end = position;
+		while (end < limit) {
+			byte b = buffer.get(end);
+			if (b == '\n' || b == '\r') {
+				break;
+			}
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Returns the start position of the next line.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param position
+	 *            Start position of current line.
+	 * @param limit
+	 *            End of contents.
+	 * @return The start position of the next line, or limit if end of contents is reached.
+	 */
+	static int nextLine(ByteBuffer buffer, int position, int limit) {
+		while (position < limit) {
+			if (buffer.get(position++) == '\n') {
+				break;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the start position of the given field. Fields are separated by ':'.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param position
+	 *            Start position of line.
+	 * @param lineEnd
+	 *            End position of line.
+	 * @param field
+	 *            Index of field.
+	 * @return The start position of the given field, or -1 if the line has fewer fields.
+	 */
+	static int fieldStart(ByteBuffer buffer, int position, int lineEnd, int field) {
+		for (int i = 0; i < field; i++) {
+			while (position < lineEnd && buffer.get(position) != ':') {
+				position++;
+			}
+			if (position == lineEnd)
+				return -1;
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the end position (exclusive) of the field starting at given position.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param position
+	 *            Start position of field.
+	 * @param lineEnd
+	 *            End position of line.
+	 * @return The end position of the field.
+	 */
+	static int fieldEnd(ByteBuffer buffer, int position, int lineEnd) {
+		while (position < lineEnd && buffer.get(position) != ':') {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Parses the number in the given range. Leading and trailing white spaces are ignored. Fortran style exponents (<code>D</code>) are accepted.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param start
+	 *            Start position.
+	 * @param end
+	 *            End position (exclusive).
+	 * @return The parsed number.
+	 * @throws NumberFormatException
+	 *             If the range doesn't contain a valid number.
+	 */
+	static double parseNumber(ByteBuffer buffer, int start, int end) throws NumberFormatException {
+
+		// trim
+		while (start < end && buffer.get(start) <= ' ') {
+			start++;
+		}
+		while (end > start && buffer.get(end - 1) <= ' ') {
+			end--;
+		}
+
+		// sign
+		int position = start;
+		boolean isNegative = false;
+		if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+			isNegative = buffer.get(position++) == '-';
+		}
+
+		// mantissa
+		long mantissa = 0L;
+		int exponent = 0, digits = 0;
+		boolean isFraction = false, isExact = true;
+		for (; position < end; position++) {
+			byte b = buffer.get(position);
+			if (b >= '0' && b <= '9') {
+				digits++;
+				if (mantissa < MAX_EXACT_MANTISSA / 10) {
+					mantissa = mantissa * 10 + (b - '0');
+					if (isFraction) {
+						exponent--;
+					}
+				}
+				else {
+					isExact = false;
+					if (!isFraction) {
+						exponent++;
+					}
+				}
+			}
+			else if (b == '.' && !isFraction) {
+				isFraction = true;
+			}
+			else {
+				break;
+			}
+		}
+
+		// no digits
+		if (digits == 0)
+			throw invalidNumber(buffer, start, end);
+
+		// exponent
+		if (position < end) {
+			byte b = buffer.get(position++);
+			if (b != 'E' && b != 'e' && b != 'D' && b != 'd')
+				throw invalidNumber(buffer, start, end);
+			boolean isNegativeExponent = false;
+			if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+				isNegativeExponent = buffer.get(position++) == '-';
+			}
+			if (position == end)
+				throw invalidNumber(buffer, start, end);
+			int value = 0;
+			for (; position < end; position++) {
+				b = buffer.get(position);
+				if (b < '0' || b > '9')
+					throw invalidNumber(buffer, start, end);
+				if (value < 10000) {
+					value = value * 10 + (b - '0');
+				}
+			}
+			exponent += isNegativeExponent ? -value : value;
+		}
+
+		// fall back to correctly rounded parsing
+		if (!isExact || exponent < -22 || exponent > 22)
+			return Double.parseDouble(toString(buffer, start, end).replace('D', 'E').replace('d', 'e'));
+
+		// exact fast path
+		double result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+		return isNegative ? -result : result;
+	}
+
+	/**
+	 * Creates number format exception for the given range.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param start
+	 *            Start position.
+	 * @param end
+	 *            End position (exclusive).
+	 * @return Number format exception.
+	 */
+	private static NumberFormatException invalidNumber(ByteBuffer buffer, int start, int end) {
+		return new NumberFormatException("Invalid number in SAFE output log file: '" + toString(buffer, start, end) + "'.");
+	}
+
+	/**
+	 * Returns the given range as string. This is only used for error reporting and rare fall back parsing.
+	 *
+	 * @param buffer
+	 *            File contents.
+	 * @param start
+	 *            Start position.
+	 * @param end
+	 *            End position (exclusive).
+	 * @return The given range as string.
+	 */
+	private static String toString(ByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.US_ASCII);
+	}
+}
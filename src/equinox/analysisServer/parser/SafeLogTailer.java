@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Class for tailing typical flight damages from a SAFE output log file while the solver is still writing it. Each call to {@link #poll()} reads the newly appended bytes, parses the completed flight results blocks and passes them to the listener in chunks of bounded size.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 19:48:14
+ */
+public class SafeLogTailer implements AutoCloseable {
+
+	/** Initial size of the read buffer. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** Log file. */
+	private final Path logFile_;
+
+	/** Listener to pass the flight damage chunks. */
+	private final ChunkListener listener_;
+
+	/** Flight numbers of the current chunk. */
+	private final int[] flightNumbers_;
+
+	/** Damages of the current chunk. */
+	private final double[] damages_;
+
+	/** Read buffer. Contains the incomplete last line between polls. */
+	private ByteBuffer buffer_ = ByteBuffer.allocate(BUFFER_SIZE);
+
+	/** File channel, or null if the log file is not created yet. */
+	private FileChannel channel_ = null;
+
+	/** Number of flights in the current chunk. */
+	private int size_ = 0;
+
+	/** Total number of flights passed to the listener. */
+	private int flights_ = 0;
+
+	/** Number of flight results headers read. */
+	private int headers_ = 0;
+
+	/** Number of lines remaining to the damage line, or -1 if not within a flight results block. */
+	private int linesToDamage_ = -1;
+
+	/** Flight number of the current flight results block. */
+	private int flightNumber_;
+
+	/** Total damage. */
+	private double totalDamage_ = 0.0;
+
+	/**
+	 * Creates SAFE log tailer which only counts the flight results headers (see {@link #getFlightsProcessed()}).
+	 *
+	 * @param logFile
+	 *            Output log file.
+	 */
+	public SafeLogTailer(Path logFile) {
+		logFile_ = logFile;
+		listener_ = null;
+		flightNumbers_ = null;
+		damages_ = null;
+	}
+
+	/**
+	 * Creates SAFE log tailer.
+	 *
+	 * @param logFile
+	 *            Output log file.
+	 * @param chunkSize
+	 *            Maximum number of flights per chunk.
+	 * @param listener
+	 *            Listener to pass the flight damage chunks.
+	 */
+	public SafeLogTailer(Path logFile, int chunkSize, ChunkListener listener) {
+		logFile_ = logFile;
+		listener_ = listener;
+		flightNumbers_ = new int[chunkSize];
+		damages_ = new double[chunkSize];
+	}
+
+	/**
+	 * Reads and parses the bytes appended to the log file since the last poll. Completed flights are passed to the listener.
+	 *
+	 * @return True if new bytes were read.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public boolean poll() throws Exception {
+
+		// open log file
+		if (channel_ == null) {
+			if (!Files.exists(logFile_))
+				return false;
+			channel_ = FileChannel.open(logFile_, StandardOpenOption.READ);
+		}
+
+		// read appended bytes
+		boolean isRead = false;
+		while (true) {
+
+			// grow buffer for long lines
+			if (!buffer_.hasRemaining()) {
+				buffer_.flip();
+				buffer_ = ByteBuffer.allocate(buffer_.capacity() * 2).put(buffer_);
+			}
+
+			// read
+			if (channel_.read(buffer_) <= 0) {
+				break;
+			}
+			isRead = true;
+
+			// parse complete lines
+			parseLines(false);
+		}
+
+		// flush chunk
+		flush();
+		return isRead;
+	}
+
+	/**
+	 * Reads the remaining bytes of the log file and passes the last chunk to the listener. This must be called after the solver exits.
+	 *
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public void finish() throws Exception {
+		poll();
+		parseLines(true);
+		flush();
+	}
+
+	/**
+	 * Returns total number of flights passed to the listener.
+	 *
+	 * @return Total number of flights passed to the listener.
+	 */
+	public int getFlights() {
+		return flights_;
+	}
+
+	/**
+	 * Returns number of flights processed by the solver so far (i.e. number of flight results headers read).
+	 *
+	 * @return Number of flights processed by the solver so far.
+	 */
+	public int getFlightsProcessed() {
+		return headers_;
+	}
+
+	/**
+	 * Returns total damage of the flights passed to the listener.
+	 *
+	 * @return Total damage.
+	 */
+	public double getTotalDamage() {
+		return totalDamage_;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel_ != null) {
+			channel_.close();
+		}
+	}
+
+	/**
+	 * Parses complete lines in the read buffer and keeps the incomplete last line for the next read.
+	 *
+	 * @param isEndOfFile
+	 *            True if the solver has exited. In this case, the incomplete last line is also parsed.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private void parseLines(boolean isEndOfFile) throws Exception {
+
+		// loop over lines
+		int limit = buffer_.position();
+		int position = 0;
+		while (position < limit) {
+
+			// incomplete line
+			int lineEnd = SafeLogScanner.lineEnd(buffer_, position, limit);
+			int next = SafeLogScanner.nextLine(buffer_, position, limit);
+			if (!isEndOfFile && (next == limit && buffer_.get(limit - 1) != '\n')) {
+				break;
+			}
+
+			// parse line
+			parseLine(position, lineEnd);
+			position = next;
+		}
+
+		// keep incomplete line
+		buffer_.limit(limit).position(position);
+		buffer_.compact();
+	}
+
+	/**
+	 * Parses the given line.
+	 *
+	 * @param position
+	 *            Start position of line.
+	 * @param lineEnd
+	 *            End position of line.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private void parseLine(int position, int lineEnd) throws Exception {
+
+		// flight results header
+		if (linesToDamage_ == -1) {
+			if (SafeLogScanner.startsWith(buffer_, position, lineEnd, SafeLogScanner.FLIGHT_RESULTS)) {
+				headers_++;
+				if (listener_ == null)
+					return;
+				flightNumber_ = (int) SafeLogScanner.parseNumber(buffer_, position + SafeLogScanner.FLIGHT_RESULTS.length, lineEnd);
+				linesToDamage_ = SafeLogScanner.DAMAGE_LINE;
+			}
+			return;
+		}
+
+		// not damage line yet
+		if (--linesToDamage_ > 0)
+			return;
+
+		// get damage
+		int fieldStart = SafeLogScanner.fieldStart(buffer_, position, lineEnd, SafeLogScanner.DAMAGE_FIELD);
+		if (fieldStart == -1)
+			throw new Exception("Cannot find flight damage in SAFE output log file for flight number " + flightNumber_ + ".");
+		double damage = SafeLogScanner.parseNumber(buffer_, fieldStart, SafeLogScanner.fieldEnd(buffer_, fieldStart, lineEnd));
+		linesToDamage_ = -1;
+
+		// add to chunk
+		flightNumbers_[size_] = flightNumber_;
+		damages_[size_] = damage;
+		totalDamage_ += damage;
+		size_++;
+
+		// chunk full
+		if (size_ == flightNumbers_.length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Passes the current chunk to the listener.
+	 *
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private void flush() throws Exception {
+		if (listener_ == null || size_ == 0)
+			return;
+		listener_.chunkParsed(Arrays.copyOf(flightNumbers_, size_), Arrays.copyOf(damages_, size_));
+		flights_ += size_;
+		size_ = 0;
+	}
+
+	/**
+	 * Interface for flight damage chunk listener.
+	 *
+	 * @author Murat Artim
+	 * @date 18 Oct 2026
+	 * @time 19:52:31
+	 */
+	public interface ChunkListener {
+
+		/**
+		 * Called when a chunk of flight damages is parsed.
+		 *
+		 * @param flightNumbers
+		 *            Typical flight numbers.
+		 * @param damages
+		 *            Damages of typical flights.
+		 * @throws Exception
+		 *             If exception occurs during process.
+		 */
+		void chunkParsed(int[] flightNumbers, double[] damages) throws Exception;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.CompressedMessage;
+import equinox.serverUtilities.NetworkMessage;
+
+/**
+ * Class for network message compression. Messages are serialized with the network serializer (see {@link Registry}) and compressed with the fastest deflate level, so that the compressed bytes are the only full-size buffer. Since the compressed bytes are held as a whole, compressed big messages are not streamed with constant memory.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 15:12:52
+ */
+public class Compression {
+
+	/** Serializers of the calling threads. */
+	private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> {
+		Kryo kryo = new Kryo();
+		Registry.register(kryo);
+		return kryo;
+	});
+
+	/**
+	 * Compresses given message.
+	 *
+	 * @param message
+	 *            Message to compress.
+	 * @return Compressed message.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static CompressedMessage compress(NetworkMessage message) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			int length;
+			try (Output output = new Output(new DeflaterOutputStream(bytes, deflater, 4096))) {
+				KRYO.get().writeClassAndObject(output, message);
+				output.flush();
+				length = (int) output.total();
+			}
+			return new CompressedMessage(bytes.toByteArray(), length);
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses given message. Inflated bytes are bounded by the declared length of the message, so that a message which inflates to more than it declares cannot exhaust memory. Nested compressed messages are rejected.
+	 *
+	 * @param message
+	 *            Compressed message.
+	 * @param maxLength
+	 *            Maximum allowed length of the inflated message in bytes.
+	 * @return The original message.
+	 * @throws Exception
+	 *             If exception occurs during process, or the message exceeds its declared or the allowed length.
+	 */
+	public static NetworkMessage decompress(CompressedMessage message, int maxLength) throws Exception {
+
+		// check declared length
+		int length = message.getLength();
+		if (length < 0 || length > maxLength)
+			throw new Exception("Compressed message length " + length + " exceeds the allowed length " + maxLength + ".");
+
+		// inflate
+		NetworkMessage inflated;
+		Inflater inflater = new Inflater();
+		try (InputStream in = new BoundedInputStream(new InflaterInputStream(new ByteArrayInputStream(message.getData()), inflater, 4096), length)) {
+			try (Input input = new Input(in)) {
+				inflated = (NetworkMessage) KRYO.get().readClassAndObject(input);
+			}
+		}
+		finally {
+			inflater.end();
+		}
+
+		// nested compression
+		if (inflated instanceof CompressedMessage)
+			throw new Exception("Nested compressed messages are not allowed.");
+		return inflated;
+	}
+
+	/**
+	 * Inner class for input stream which fails once more than a given number of bytes is read.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 12:26:44
+	 */
+	private static final class BoundedInputStream extends FilterInputStream {
+
+		/** Remaining number of bytes allowed to be read. */
+		private long remaining_;
+
+		/**
+		 * Creates bounded input stream.
+		 *
+		 * @param in
+		 *            Underlying input stream.
+		 * @param limit
+		 *            Maximum number of bytes allowed to be read.
+		 */
+		private BoundedInputStream(InputStream in, long limit) {
+			super(in);
+			remaining_ = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b != -1) {
+				consume(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			// limit reached (allow one more byte to detect overflow)
+			int n = in.read(b, off, (int) Math.min(len, remaining_ + 1L));
+			if (n > 0) {
+				consume(n);
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(Math.min(n, remaining_ + 1L));
+			consume(skipped);
+			return skipped;
+		}
+
+		/**
+		 * Consumes given number of bytes from the remaining allowance.
+		 *
+		 * @param n
+		 *            Number of bytes read.
+		 * @throws IOException
+		 *             If the limit is exceeded.
+		 */
+		private void consume(long n) throws IOException {
+			remaining_ -= n;
+			if (remaining_ < 0L)
+				throw new IOException("Compressed message inflates beyond its declared length.");
+		}
+	}
+}
\ No newline at end of file
@@ -31,16 +31,19 @@ import equinox.analysisServer.remote.listener.AnalysisMessageListener;
 import equinox.analysisServer.remote.message.AnalysisComplete;
 import equinox.analysisServer.remote.message.AnalysisFailed;
 import equinox.analysisServer.remote.message.AnalysisMessage;
+import equinox.analysisServer.remote.message.AnalysisMessageBatch;
 import equinox.analysisServer.remote.message.AnalysisProgress;
 import equinox.analysisServer.remote.message.AnalysisRequest;
 import equinox.analysisServer.remote.message.AnalysisServerStatisticsRequest;
 import equinox.analysisServer.remote.message.AnalysisServerStatisticsRequestFailed;
 import equinox.analysisServer.remote.message.AnalysisServerStatisticsResponse;
+import equinox.analysisServer.remote.message.CompressedMessage;
 import equinox.analysisServer.remote.message.DAAIncrementComplete;
 import equinox.analysisServer.remote.message.DCAIncrementComplete;
 import equinox.analysisServer.remote.message.ESAComplete;
 import equinox.analysisServer.remote.message.FastESAComplete;
 import equinox.analysisServer.remote.message.FlightDCAComplete;
+import equinox.analysisServer.remote.message.FlightDCAPartialResult;
 import equinox.analysisServer.remote.message.FullESAComplete;
 import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
 import equinox.analysisServer.remote.message.IsamiESARequest;
@@ -54,6 +57,15 @@ import equinox.analysisServer.remote.message.SafeFlightDCARequest;
 import equinox.analysisServer.remote.message.StopAnalysisServerRequest;
 import equinox.analysisServer.remote.message.StopAnalysisServerRequestFailed;
 import equinox.analysisServer.remote.message.StopAnalysisServerResponse;
+import equinox.analysisServer.remote.serializer.AnalysisFailedSerializer;
+import equinox.analysisServer.remote.serializer.AnalysisMessageBatchSerializer;
+import equinox.analysisServer.remote.serializer.AnalysisProgressSerializer;
+import equinox.analysisServer.remote.serializer.DAAIncrementCompleteSerializer;
+import equinox.analysisServer.remote.serializer.DCAIncrementCompleteSerializer;
+import equinox.analysisServer.remote.serializer.FastESACompleteSerializer;
+import equinox.analysisServer.remote.serializer.FlightDCACompleteSerializer;
+import equinox.analysisServer.remote.serializer.FullESACompleteSerializer;
+import equinox.analysisServer.remote.serializer.FlightDCAPartialResultSerializer;
 import equinox.serverUtilities.BigMessage;
 import equinox.serverUtilities.FilerConnection;
 import equinox.serverUtilities.NetworkMessage;
@@ -73,77 +85,85 @@ import equinox.serverUtilities.SplitMessage;
 public class Registry {
 
 	/**
-	 * This registers objects that are going to be sent over the network.
+	 * This registers objects that are going to be sent over the network. Registration IDs are explicit, so that they don't depend on the registration order. IDs below 100 are reserved for Kryo and KryoNet internal classes. Existing IDs must never be changed or reused; new classes must be given new IDs within the range of their group.
 	 *
 	 * @param endPoint
 	 *            End point to retrieve the kryo object serializer.
 	 */
 	public static void register(EndPoint endPoint) {
+		register(endPoint.getKryo());
+	}
 
-		// get object serializer
-		Kryo kryo = endPoint.getKryo();
+	/**
+	 * This registers objects that are going to be sent over the network to the given object serializer.
+	 *
+	 * @param kryo
+	 *            Object serializer.
+	 */
+	public static void register(Kryo kryo) {
 
 		// register JDK classes
-		kryo.register(String[].class);
-		kryo.register(char[].class);
-		kryo.register(byte[].class);
-		kryo.register(int[].class);
-		kryo.register(int[][].class);
-		kryo.register(long[].class);
-		kryo.register(boolean[].class);
-		kryo.register(List.class);
-		kryo.register(ArrayList.class);
-		kryo.register(Vector.class);
-		kryo.register(HashMap.class);
-		kryo.register(Exception.class);
-		kryo.register(StackTraceElement.class);
-		kryo.register(Timestamp.class);
-		kryo.register(Date.class);
+		kryo.register(String[].class, 100);
+		kryo.register(char[].class, 101);
+		kryo.register(byte[].class, 102);
+		kryo.register(int[].class, 103);
+		kryo.register(int[][].class, 104);
+		kryo.register(long[].class, 105);
+		kryo.register(boolean[].class, 106);
+		kryo.register(List.class, 107);
+		kryo.register(ArrayList.class, 108);
+		kryo.register(Vector.class, 109);
+		kryo.register(HashMap.class, 110);
+		kryo.register(Timestamp.class, 111);
+		kryo.register(Date.class, 112);
 
 		// register utility classes
-		kryo.register(NetworkMessage.class);
-		kryo.register(BigMessage.class);
-		kryo.register(PartialMessage.class);
-		kryo.register(SplitMessage.class);
-		kryo.register(FilerConnection.class);
-		kryo.register(ServerUtility.class);
-		kryo.register(Permission.class);
-		kryo.register(Permission[].class);
+		kryo.register(NetworkMessage.class, 130);
+		kryo.register(BigMessage.class, 131);
+		kryo.register(PartialMessage.class, 132);
+		kryo.register(SplitMessage.class, 133);
+		kryo.register(FilerConnection.class, 134);
+		kryo.register(ServerUtility.class, 135);
+		kryo.register(Permission.class, 136);
+		kryo.register(Permission[].class, 137);
 
 		// register data classes
-		kryo.register(IsamiMaterial.class);
-		kryo.register(AnalysisServerStatistic.class);
-		kryo.register(AnalysisServerStatistic[].class);
+		kryo.register(IsamiMaterial.class, 150);
+		kryo.register(AnalysisServerStatistic.class, 151);
+		kryo.register(AnalysisServerStatistic[].class, 152);
 
 		// register message classes
-		kryo.register(HandshakeWithAnalysisServer.class);
-		kryo.register(AnalysisMessage.class);
-		kryo.register(AnalysisRequest.class);
-		kryo.register(IsamiESARequest.class);
-		kryo.register(SafeDAAIncrementRequest.class);
-		kryo.register(SafeDCAIncrementRequest.class);
-		kryo.register(SafeESARequest.class);
-		kryo.register(SafeFlightDCARequest.class);
-		kryo.register(AnalysisFailed.class);
-		kryo.register(AnalysisProgress.class);
-		kryo.register(AnalysisComplete.class);
-		kryo.register(DAAIncrementComplete.class);
-		kryo.register(DCAIncrementComplete.class);
-		kryo.register(ESAComplete.class);
-		kryo.register(FastESAComplete.class);
-		kryo.register(FullESAComplete.class);
-		kryo.register(FlightDCAComplete.class);
-		kryo.register(AnalysisServerStatisticsRequest.class);
-		kryo.register(AnalysisServerStatisticsResponse.class);
-		kryo.register(AnalysisServerStatisticsRequestFailed.class);
-		kryo.register(StopAnalysisServerRequest.class);
-		kryo.register(StopAnalysisServerResponse.class);
-		kryo.register(StopAnalysisServerRequestFailed.class);
-		kryo.register(RestartAnalysisServerRequest.class);
-		kryo.register(RestartAnalysisServerResponse.class);
-		kryo.register(RestartAnalysisServerRequestFailed.class);
+		kryo.register(HandshakeWithAnalysisServer.class, 200);
+		kryo.register(AnalysisMessage.class, 201);
+		kryo.register(AnalysisRequest.class, 202);
+		kryo.register(IsamiESARequest.class, 203);
+		kryo.register(SafeDAAIncrementRequest.class, 204);
+		kryo.register(SafeDCAIncrementRequest.class, 205);
+		kryo.register(SafeESARequest.class, 206);
+		kryo.register(SafeFlightDCARequest.class, 207);
+		kryo.register(AnalysisFailed.class, new AnalysisFailedSerializer(), 208);
+		kryo.register(AnalysisProgress.class, new AnalysisProgressSerializer(), 209);
+		kryo.register(AnalysisComplete.class, 210);
+		kryo.register(DAAIncrementComplete.class, new DAAIncrementCompleteSerializer(), 211);
+		kryo.register(DCAIncrementComplete.class, new DCAIncrementCompleteSerializer(), 212);
+		kryo.register(ESAComplete.class, 213);
+		kryo.register(FastESAComplete.class, new FastESACompleteSerializer(), 214);
+		kryo.register(FullESAComplete.class, new FullESACompleteSerializer(), 215);
+		kryo.register(FlightDCAComplete.class, new FlightDCACompleteSerializer(), 216);
+		kryo.register(FlightDCAPartialResult.class, new FlightDCAPartialResultSerializer(), 217);
+		kryo.register(AnalysisServerStatisticsRequest.class, 218);
+		kryo.register(AnalysisServerStatisticsResponse.class, 219);
+		kryo.register(AnalysisServerStatisticsRequestFailed.class, 220);
+		kryo.register(StopAnalysisServerRequest.class, 221);
+		kryo.register(StopAnalysisServerResponse.class, 222);
+		kryo.register(StopAnalysisServerRequestFailed.class, 223);
+		kryo.register(RestartAnalysisServerRequest.class, 224);
+		kryo.register(RestartAnalysisServerResponse.class, 225);
+		kryo.register(RestartAnalysisServerRequestFailed.class, 226);
+		kryo.register(CompressedMessage.class, 227);
+		kryo.register(AnalysisMessageBatch.class, new AnalysisMessageBatchSerializer(), 228);
 
 		// register listener classes
-		kryo.register(AnalysisMessageListener.class);
+		kryo.register(AnalysisMessageListener.class, 300);
 	}
 }
\ No newline at end of file
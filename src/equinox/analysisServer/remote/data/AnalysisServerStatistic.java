@@ -34,7 +34,10 @@ public class AnalysisServerStatistic implements Serializable {
 	private final Date recorded;
 
 	/** Statistics. */
-	private int analysisRequests, failedAnalyses, threadPoolSize, activeThreads;
+	private int analysisRequests, failedAnalyses, threadPoolSize, activeThreads, prefetchHits, prefetchMisses;
+
+	/** Analysis wall time saved by input prefetching in milliseconds. */
+	private long prefetchSavedTime;
 
 	/**
 	 * No argument constructor for serialization.
@@ -83,6 +86,36 @@ public class AnalysisServerStatistic implements Serializable {
 		this.activeThreads = activeThreads;
 	}
 
+	/**
+	 * Sets number of analyses which found their input files prefetched.
+	 *
+	 * @param prefetchHits
+	 *            Number of prefetch hits.
+	 */
+	public void setPrefetchHits(int prefetchHits) {
+		this.prefetchHits = prefetchHits;
+	}
+
+	/**
+	 * Sets number of analyses which downloaded their own input files.
+	 *
+	 * @param prefetchMisses
+	 *            Number of prefetch misses.
+	 */
+	public void setPrefetchMisses(int prefetchMisses) {
+		this.prefetchMisses = prefetchMisses;
+	}
+
+	/**
+	 * Sets analysis wall time saved by input prefetching.
+	 *
+	 * @param prefetchSavedTime
+	 *            Saved wall time in milliseconds.
+	 */
+	public void setPrefetchSavedTime(long prefetchSavedTime) {
+		this.prefetchSavedTime = prefetchSavedTime;
+	}
+
 	/**
 	 * Returns the record time.
 	 *
@@ -128,6 +161,33 @@ public class AnalysisServerStatistic implements Serializable {
 		return activeThreads;
 	}
 
+	/**
+	 * Returns number of analyses which found their input files prefetched.
+	 *
+	 * @return Number of prefetch hits.
+	 */
+	public int getPrefetchHits() {
+		return prefetchHits;
+	}
+
+	/**
+	 * Returns number of analyses which downloaded their own input files.
+	 *
+	 * @return Number of prefetch misses.
+	 */
+	public int getPrefetchMisses() {
+		return prefetchMisses;
+	}
+
+	/**
+	 * Returns analysis wall time saved by input prefetching.
+	 *
+	 * @return Saved wall time in milliseconds.
+	 */
+	public long getPrefetchSavedTime() {
+		return prefetchSavedTime;
+	}
+
 	@Override
 	public String toString() {
 		String text = "Recorded: " + recorded.toString();
@@ -135,6 +195,9 @@ public class AnalysisServerStatistic implements Serializable {
 		text += ", Failed Analyses: " + failedAnalyses;
 		text += ", Thread Pool Size: " + threadPoolSize;
 		text += ", Active Threads: " + activeThreads;
+		text += ", Prefetch Hits: " + prefetchHits;
+		text += ", Prefetch Misses: " + prefetchMisses;
+		text += ", Prefetch Saved Time: " + prefetchSavedTime + " ms";
 		return text;
 	}
 }
\ No newline at end of file
@@ -26,14 +26,23 @@ package equinox.analysisServer.remote.message;
 public final class AnalysisFailed extends AnalysisMessage {
 
 	/** Serial ID. */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 3L;
+
+	/** Error code. */
+	public static final int ANALYSIS_ERROR = 0, INPUT_ERROR = 1, INTERNAL_ERROR = 2, SERVER_UNAVAILABLE = 3;
 
 	/** Thrown exception message. */
 	private String exceptionMessage_;
 
+	/** Error code. */
+	private int errorCode_ = ANALYSIS_ERROR;
+
 	/** Analysis output file download URL. */
 	private String downloadUrl_ = null;
 
+	/** Time after which the request can be retried in seconds, or 0 if not given. */
+	private int retryAfter_ = 0;
+
 	/**
 	 * No argument constructor for serialization.
 	 */
@@ -41,16 +50,47 @@ public final class AnalysisFailed extends AnalysisMessage {
 	}
 
 	/**
-	 * Sets thrown exception to this message.
+	 * Sets thrown exception to this message. Only the messages of the exception and its causes are kept, stack traces are logged by the server.
 	 *
 	 * @param exception
 	 *            Thrown exception of the analysis.
 	 */
 	public void setException(Exception exception) {
-		exceptionMessage_ = exception.getMessage() + "\n";
-		for (StackTraceElement ste : exception.getStackTrace()) {
-			exceptionMessage_ += ste.toString() + "\n";
+		StringBuilder message = new StringBuilder(String.valueOf(exception.getMessage()));
+		for (Throwable cause = exception.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+			message.append("\nCaused by: ").append(cause.getClass().getSimpleName()).append(": ").append(cause.getMessage());
 		}
+		exceptionMessage_ = message.toString();
+	}
+
+	/**
+	 * Sets error code to this message.
+	 *
+	 * @param errorCode
+	 *            Error code. Can be ANALYSIS_ERROR, INPUT_ERROR, INTERNAL_ERROR or SERVER_UNAVAILABLE.
+	 */
+	public void setErrorCode(int errorCode) {
+		errorCode_ = errorCode;
+	}
+
+	/**
+	 * Sets the time after which the request can be retried.
+	 *
+	 * @param retryAfter
+	 *            Time after which the request can be retried in seconds, or 0 if not given.
+	 */
+	public void setRetryAfter(int retryAfter) {
+		retryAfter_ = retryAfter;
+	}
+
+	/**
+	 * Sets thrown exception message to this message.
+	 *
+	 * @param exceptionMessage
+	 *            Thrown exception message of the analysis.
+	 */
+	public void setExceptionMessage(String exceptionMessage) {
+		exceptionMessage_ = exceptionMessage;
 	}
 
 	/**
@@ -64,7 +104,25 @@ public final class AnalysisFailed extends AnalysisMessage {
 	}
 
 	/**
-	 * Returns the thrown exception message of the analysis. This message also contains the stack trace.
+	 * Returns the error code. INPUT_ERROR indicates that the analysis failed due to its inputs and will fail again unless the inputs are changed. SERVER_UNAVAILABLE indicates that the request was not accepted since the server is stopping.
+	 *
+	 * @return The error code.
+	 */
+	public int getErrorCode() {
+		return errorCode_;
+	}
+
+	/**
+	 * Returns the time after which the request can be retried in seconds, or 0 if not given. This is given with SERVER_UNAVAILABLE errors.
+	 *
+	 * @return The time after which the request can be retried in seconds, or 0 if not given.
+	 */
+	public int getRetryAfter() {
+		return retryAfter_;
+	}
+
+	/**
+	 * Returns the thrown exception message of the analysis. This message also contains the messages of the causes.
 	 *
 	 * @return The thrown exception message of the analysis.
 	 */
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import equinox.serverUtilities.NetworkMessage;
+
+/**
+ * Class for analysis message batch. This is a transport envelope bundling analysis messages sent to the same client within a short time, so that they are written in one frame. It is only sent to clients which negotiated batching in their handshake. Receivers should dispatch the contained messages in order, as if they were received one by one.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 16:02:44
+ */
+public final class AnalysisMessageBatch implements NetworkMessage {
+
+	/** Serial ID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Bundled messages. */
+	private final ArrayList<AnalysisMessage> messages_ = new ArrayList<>();
+
+	/**
+	 * No argument constructor for serialization.
+	 */
+	public AnalysisMessageBatch() {
+	}
+
+	/**
+	 * Adds given message to this batch.
+	 *
+	 * @param message
+	 *            Message to add.
+	 */
+	public void add(AnalysisMessage message) {
+		messages_.add(message);
+	}
+
+	/**
+	 * Returns the bundled messages in the order they were sent.
+	 *
+	 * @return The bundled messages.
+	 */
+	public List<AnalysisMessage> getMessages() {
+		return messages_;
+	}
+}
@@ -31,6 +31,12 @@ public final class AnalysisProgress extends AnalysisMessage {
 	/** Progress message. */
 	private String progressMessage_;
 
+	/** Percent complete, or -1 if not known. */
+	private int percent_ = -1;
+
+	/** Estimated remaining time in milliseconds, or -1 if not known. */
+	private long remainingTime_ = -1L;
+
 	/**
 	 * No argument constructor for serialization.
 	 */
@@ -47,6 +53,26 @@ public final class AnalysisProgress extends AnalysisMessage {
 		progressMessage_ = progressMessage;
 	}
 
+	/**
+	 * Sets percent complete.
+	 *
+	 * @param percent
+	 *            Percent complete, or -1 if not known.
+	 */
+	public void setPercent(int percent) {
+		percent_ = percent;
+	}
+
+	/**
+	 * Sets estimated remaining time.
+	 *
+	 * @param remainingTime
+	 *            Estimated remaining time in milliseconds, or -1 if not known.
+	 */
+	public void setRemainingTime(long remainingTime) {
+		remainingTime_ = remainingTime;
+	}
+
 	/**
 	 * Returns progress message.
 	 *
@@ -55,4 +81,22 @@ public final class AnalysisProgress extends AnalysisMessage {
 	public String getProgressMessage() {
 		return progressMessage_;
 	}
+
+	/**
+	 * Returns percent complete.
+	 *
+	 * @return Percent complete, or -1 if not known.
+	 */
+	public int getPercent() {
+		return percent_;
+	}
+
+	/**
+	 * Returns estimated remaining time.
+	 *
+	 * @return Estimated remaining time in milliseconds, or -1 if not known.
+	 */
+	public long getRemainingTime() {
+		return remainingTime_;
+	}
 }
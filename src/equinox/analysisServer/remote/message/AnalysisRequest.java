@@ -33,6 +33,9 @@ public abstract class AnalysisRequest extends AnalysisMessage {
 	/** True if output files should be uploaded at the end of the analysis. */
 	private boolean uploadOutputFiles_ = false;
 
+	/** True if the analysis should be run even if the same inputs recently failed. */
+	private boolean ignoreCachedFailure_ = false;
+
 	/**
 	 * Sets input file download URL to this message.
 	 *
@@ -53,6 +56,16 @@ public abstract class AnalysisRequest extends AnalysisMessage {
 		uploadOutputFiles_ = uploadOutputFiles;
 	}
 
+	/**
+	 * Sets whether the analysis should be run even if the same inputs recently failed. By default, such requests are failed immediately with the cached failure.
+	 *
+	 * @param ignoreCachedFailure
+	 *            True to run the analysis regardless of the cached failure.
+	 */
+	public void setIgnoreCachedFailure(boolean ignoreCachedFailure) {
+		ignoreCachedFailure_ = ignoreCachedFailure;
+	}
+
 	/**
 	 * Returns the input file download URL.
 	 *
@@ -70,4 +83,13 @@ public abstract class AnalysisRequest extends AnalysisMessage {
 	public boolean getUploadOutputFiles() {
 		return uploadOutputFiles_;
 	}
+
+	/**
+	 * Returns true if the analysis should be run even if the same inputs recently failed.
+	 *
+	 * @return True if the analysis should be run even if the same inputs recently failed.
+	 */
+	public boolean getIgnoreCachedFailure() {
+		return ignoreCachedFailure_;
+	}
 }
\ No newline at end of file
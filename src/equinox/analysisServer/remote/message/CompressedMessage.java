@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.message;
+
+import equinox.serverUtilities.BigMessage;
+
+/**
+ * Class for compressed message. This is a transport envelope carrying another network message, serialized with the network serializer and compressed. It is only sent to clients which negotiated compression in their handshake.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 15:04:19
+ */
+public final class CompressedMessage implements BigMessage {
+
+	/** Serial ID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Maximum compressed size which can be sent without splitting the message (within the 8 KB object buffer). */
+	private static final int MAX_SIZE = 8000;
+
+	/** Compressed data. */
+	private byte[] data_;
+
+	/** Uncompressed size in bytes. */
+	private int length_;
+
+	/**
+	 * No argument constructor for serialization.
+	 */
+	public CompressedMessage() {
+	}
+
+	/**
+	 * Creates compressed message.
+	 *
+	 * @param data
+	 *            Compressed data.
+	 * @param length
+	 *            Uncompressed size in bytes.
+	 */
+	public CompressedMessage(byte[] data, int length) {
+		data_ = data;
+		length_ = length;
+	}
+
+	/**
+	 * Returns the compressed data.
+	 *
+	 * @return The compressed data.
+	 */
+	public byte[] getData() {
+		return data_;
+	}
+
+	/**
+	 * Returns the uncompressed size in bytes.
+	 *
+	 * @return The uncompressed size in bytes.
+	 */
+	public int getLength() {
+		return length_;
+	}
+
+	@Override
+	public boolean isReallyBig() {
+		return data_ != null && data_.length > MAX_SIZE;
+	}
+}
@@ -15,12 +15,13 @@
  */
 package equinox.analysisServer.remote.message;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 import equinox.serverUtilities.BigMessage;
 
 /**
- * Class for typical flight damage contribution analysis complete network message.
+ * Class for typical flight damage contribution analysis complete network message. Flight numbers and damages are stored in parallel primitive arrays (see <code>FlightDCACompleteSerializer</code>).
  *
  * @author Murat Artim
  * @date 3 May 2017
@@ -30,14 +31,26 @@ import equinox.serverUtilities.BigMessage;
 public final class FlightDCAComplete extends AnalysisComplete implements BigMessage {
 
 	/** Serial ID. */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
 
-	/** Mapping storing typical flight number versus damage. */
-	private HashMap<Integer, Double> flightDamages_;
+	/** Maximum number of flights which can be sent without splitting the message (worst case 13 bytes per flight within the 8 KB object buffer). */
+	private static final int MAX_FLIGHTS = 576;
+
+	/** Typical flight numbers. */
+	private int[] flightNumbers_;
+
+	/** Damages of typical flights. */
+	private double[] damages_;
+
+	/** Number of typical flights. */
+	private int size_ = 0;
 
 	/** Total damage. */
 	private double totalDamage_ = 0.0;
 
+	/** Number of flights streamed with {@link FlightDCAPartialResult} messages before this message. */
+	private int streamedFlights_ = 0;
+
 	/**
 	 * No argument constructor for serialization.
 	 */
@@ -63,10 +76,64 @@ public final class FlightDCAComplete extends AnalysisComplete implements BigMess
 	 *            Damage.
 	 */
 	public void putDamage(int flightNumber, double damage) {
-		if (flightDamages_ == null) {
-			flightDamages_ = new HashMap<>();
+
+		// create or grow arrays
+		if (flightNumbers_ == null) {
+			flightNumbers_ = new int[16];
+			damages_ = new double[16];
+		}
+		else if (size_ == flightNumbers_.length) {
+			flightNumbers_ = Arrays.copyOf(flightNumbers_, size_ * 2);
+			damages_ = Arrays.copyOf(damages_, size_ * 2);
 		}
-		flightDamages_.put(flightNumber, damage);
+
+		// put damage
+		flightNumbers_[size_] = flightNumber;
+		damages_[size_] = damage;
+		size_++;
+	}
+
+	/**
+	 * Sets flight damages. The given arrays are not copied.
+	 *
+	 * @param flightNumbers
+	 *            Typical flight numbers.
+	 * @param damages
+	 *            Damages of typical flights, in the order of flight numbers.
+	 */
+	public void setDamages(int[] flightNumbers, double[] damages) {
+		flightNumbers_ = flightNumbers;
+		damages_ = damages;
+		size_ = flightNumbers == null ? 0 : flightNumbers.length;
+	}
+
+	/**
+	 * Sets total damage.
+	 *
+	 * @param totalDamage
+	 *            Total damage.
+	 */
+	public void setTotalDamage(double totalDamage) {
+		totalDamage_ = totalDamage;
+	}
+
+	/**
+	 * Sets number of flights streamed with partial result messages before this message.
+	 *
+	 * @param streamedFlights
+	 *            Number of streamed flights.
+	 */
+	public void setStreamedFlights(int streamedFlights) {
+		streamedFlights_ = streamedFlights;
+	}
+
+	/**
+	 * Returns number of flights streamed with partial result messages before this message. If non-zero, flight damages are not contained in this message.
+	 *
+	 * @return Number of streamed flights.
+	 */
+	public int getStreamedFlights() {
+		return streamedFlights_;
 	}
 
 	/**
@@ -79,18 +146,61 @@ public final class FlightDCAComplete extends AnalysisComplete implements BigMess
 	}
 
 	/**
-	 * Returns flight damages.
+	 * Returns number of typical flights.
+	 *
+	 * @return Number of typical flights.
+	 */
+	public int getFlightCount() {
+		return size_;
+	}
+
+	/**
+	 * Returns typical flight numbers.
+	 *
+	 * @return Typical flight numbers, or null if there is no flight.
+	 */
+	public int[] getFlightNumbers() {
+		trim();
+		return flightNumbers_;
+	}
+
+	/**
+	 * Returns damages of typical flights, in the order of flight numbers.
+	 *
+	 * @return Damages of typical flights, or null if there is no flight.
+	 */
+	public double[] getFlightDamages() {
+		trim();
+		return damages_;
+	}
+
+	/**
+	 * Returns flight damages mapped to flight numbers. Note that the mapping is created at each call.
 	 *
-	 * @return Flight damages.
+	 * @return Flight damages, or null if there is no flight.
 	 */
 	public HashMap<Integer, Double> getDamages() {
-		return flightDamages_;
+		if (flightNumbers_ == null)
+			return null;
+		HashMap<Integer, Double> damages = new HashMap<>(size_ * 4 / 3 + 1);
+		for (int i = 0; i < size_; i++) {
+			damages.put(flightNumbers_[i], damages_[i]);
+		}
+		return damages;
 	}
 
 	@Override
 	public boolean isReallyBig() {
-		if (flightDamages_ == null || flightDamages_.size() < 500)
-			return false;
-		return true;
+		return size_ > MAX_FLIGHTS;
+	}
+
+	/**
+	 * Trims flight arrays to the number of flights.
+	 */
+	private void trim() {
+		if (flightNumbers_ != null && flightNumbers_.length != size_) {
+			flightNumbers_ = Arrays.copyOf(flightNumbers_, size_);
+			damages_ = Arrays.copyOf(damages_, size_);
+		}
 	}
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.message;
+
+/**
+ * Class for typical flight damage contribution analysis partial result network message. Partial results are streamed to the client while the solver is running, and followed by a {@link FlightDCAComplete} summary message.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 20:14:08
+ */
+public final class FlightDCAPartialResult extends AnalysisMessage {
+
+	/** Serial ID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Typical flight numbers. */
+	private int[] flightNumbers_;
+
+	/** Damages of typical flights. */
+	private double[] damages_;
+
+	/**
+	 * No argument constructor for serialization.
+	 */
+	public FlightDCAPartialResult() {
+	}
+
+	/**
+	 * Sets flight damages. The given arrays are not copied.
+	 *
+	 * @param flightNumbers
+	 *            Typical flight numbers.
+	 * @param damages
+	 *            Damages of typical flights, in the order of flight numbers.
+	 */
+	public void setDamages(int[] flightNumbers, double[] damages) {
+		flightNumbers_ = flightNumbers;
+		damages_ = damages;
+	}
+
+	/**
+	 * Returns number of typical flights.
+	 *
+	 * @return Number of typical flights.
+	 */
+	public int getFlightCount() {
+		return flightNumbers_ == null ? 0 : flightNumbers_.length;
+	}
+
+	/**
+	 * Returns typical flight numbers.
+	 *
+	 * @return Typical flight numbers.
+	 */
+	public int[] getFlightNumbers() {
+		return flightNumbers_;
+	}
+
+	/**
+	 * Returns damages of typical flights, in the order of flight numbers.
+	 *
+	 * @return Damages of typical flights.
+	 */
+	public double[] getFlightDamages() {
+		return damages_;
+	}
+}
@@ -16,7 +16,7 @@
 package equinox.analysisServer.remote.message;
 
 /**
- * Class for handshake message.
+ * Class for handshake message. The client sends its protocol version and capabilities. The server replies with its own protocol version and the negotiated capabilities (the capabilities supported by both sides). Handshakes of clients with a protocol version other than the current one are rejected, since the wire format and the result messages depend on the protocol version. Clients which don't send any capabilities are served without compression and batching.
  *
  * @version 1.0
  * @author Murat Artim
@@ -27,7 +27,13 @@ package equinox.analysisServer.remote.message;
 public final class HandshakeWithAnalysisServer extends AnalysisMessage {
 
 	/** Serial ID. */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	/** Current protocol version. */
+	public static final int PROTOCOL_VERSION = 3;
+
+	/** Capability flag. */
+	public static final int COMPRESSION = 1, BATCHING = 2;
 
 	/** User alias. */
 	private String alias_;
@@ -35,6 +41,12 @@ public final class HandshakeWithAnalysisServer extends AnalysisMessage {
 	/** Server reply to handshake message. */
 	private boolean isSuccessful_;
 
+	/** Protocol version of the sender. */
+	private int protocolVersion_ = 0;
+
+	/** Capability flags. */
+	private int capabilities_ = 0;
+
 	/**
 	 * No argument constructor for serialization.
 	 */
@@ -60,6 +72,44 @@ public final class HandshakeWithAnalysisServer extends AnalysisMessage {
 		return alias_;
 	}
 
+	/**
+	 * Sets protocol version of the sender.
+	 *
+	 * @param protocolVersion
+	 *            Protocol version.
+	 */
+	public void setProtocolVersion(int protocolVersion) {
+		protocolVersion_ = protocolVersion;
+	}
+
+	/**
+	 * Sets capability flags. Clients set their supported capabilities, the server replies with the negotiated capabilities.
+	 *
+	 * @param capabilities
+	 *            Capability flags (combination of COMPRESSION and BATCHING).
+	 */
+	public void setCapabilities(int capabilities) {
+		capabilities_ = capabilities;
+	}
+
+	/**
+	 * Returns protocol version of the sender, or 0 if the sender doesn't support versioning.
+	 *
+	 * @return Protocol version of the sender.
+	 */
+	public int getProtocolVersion() {
+		return protocolVersion_;
+	}
+
+	/**
+	 * Returns capability flags.
+	 *
+	 * @return Capability flags.
+	 */
+	public int getCapabilities() {
+		return capabilities_;
+	}
+
 	/**
 	 * Returns true if handshake is successful.
 	 *
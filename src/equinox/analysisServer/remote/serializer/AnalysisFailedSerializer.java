@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.AnalysisFailed;
+
+/**
+ * Class for analysis failed message serializer. The error code and retry time are written as variable length integers.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 10:24:48
+ */
+public class AnalysisFailedSerializer extends Serializer<AnalysisFailed> {
+
+	@Override
+	public void write(Kryo kryo, Output output, AnalysisFailed object) {
+		output.writeInt(object.getListenerHashCode());
+		output.writeVarInt(object.getErrorCode(), true);
+		output.writeVarInt(object.getRetryAfter(), true);
+		output.writeString(object.getExceptionMessage());
+		output.writeString(object.getDownloadUrl());
+	}
+
+	@Override
+	public AnalysisFailed read(Kryo kryo, Input input, Class<AnalysisFailed> type) {
+		AnalysisFailed object = new AnalysisFailed();
+		object.setListenerHashCode(input.readInt());
+		object.setErrorCode(input.readVarInt(true));
+		object.setRetryAfter(input.readVarInt(true));
+		object.setExceptionMessage(input.readString());
+		object.setDownloadUrl(input.readString());
+		return object;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import java.util.List;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.AnalysisMessage;
+import equinox.analysisServer.remote.message.AnalysisMessageBatch;
+
+/**
+ * Class for analysis message batch serializer. The number of messages is written as a variable length integer, followed by the messages with their class registration IDs.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 16:08:15
+ */
+public class AnalysisMessageBatchSerializer extends Serializer<AnalysisMessageBatch> {
+
+	@Override
+	public void write(Kryo kryo, Output output, AnalysisMessageBatch object) {
+		List<AnalysisMessage> messages = object.getMessages();
+		output.writeVarInt(messages.size(), true);
+		for (AnalysisMessage message : messages) {
+			kryo.writeClassAndObject(output, message);
+		}
+	}
+
+	@Override
+	public AnalysisMessageBatch read(Kryo kryo, Input input, Class<AnalysisMessageBatch> type) {
+		AnalysisMessageBatch object = new AnalysisMessageBatch();
+		int size = input.readVarInt(true);
+		for (int i = 0; i < size; i++) {
+			object.add((AnalysisMessage) kryo.readClassAndObject(input));
+		}
+		return object;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.AnalysisProgress;
+
+/**
+ * Class for analysis progress message serializer. Percent and remaining time are written as variable length integers.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 10:21:05
+ */
+public class AnalysisProgressSerializer extends Serializer<AnalysisProgress> {
+
+	@Override
+	public void write(Kryo kryo, Output output, AnalysisProgress object) {
+		output.writeInt(object.getListenerHashCode());
+		output.writeString(object.getProgressMessage());
+		output.writeVarInt(object.getPercent(), false);
+		output.writeVarLong(object.getRemainingTime(), false);
+	}
+
+	@Override
+	public AnalysisProgress read(Kryo kryo, Input input, Class<AnalysisProgress> type) {
+		AnalysisProgress object = new AnalysisProgress();
+		object.setListenerHashCode(input.readInt());
+		object.setProgressMessage(input.readString());
+		object.setPercent(input.readVarInt(false));
+		object.setRemainingTime(input.readVarLong(false));
+		return object;
+	}
+}
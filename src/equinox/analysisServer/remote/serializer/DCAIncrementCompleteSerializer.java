@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.DCAIncrementComplete;
+
+/**
+ * Class for damage contribution analysis increment complete message serializer. Presence of the optional damage and stress values is written as a single flags byte.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 10:32:19
+ */
+public class DCAIncrementCompleteSerializer extends Serializer<DCAIncrementComplete> {
+
+	/** Flags for present values. */
+	private static final int DAMAGE = 1, STRESS = 2;
+
+	@Override
+	public void write(Kryo kryo, Output output, DCAIncrementComplete object) {
+
+		// write flags
+		Double damage = object.getDamage(), stress = object.getStress();
+		output.writeInt(object.getListenerHashCode());
+		output.writeByte((damage == null ? 0 : DAMAGE) | (stress == null ? 0 : STRESS));
+
+		// write values
+		if (damage != null) {
+			output.writeDouble(damage);
+		}
+		if (stress != null) {
+			output.writeDouble(stress);
+		}
+	}
+
+	@Override
+	public DCAIncrementComplete read(Kryo kryo, Input input, Class<DCAIncrementComplete> type) {
+
+		// read flags
+		DCAIncrementComplete object = new DCAIncrementComplete();
+		object.setListenerHashCode(input.readInt());
+		int flags = input.readByte();
+
+		// read values
+		if ((flags & DAMAGE) != 0) {
+			object.setDamage(input.readDouble());
+		}
+		if ((flags & STRESS) != 0) {
+			object.setStress(input.readDouble());
+		}
+		return object;
+	}
+}
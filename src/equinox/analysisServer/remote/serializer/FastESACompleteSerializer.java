@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.FastESAComplete;
+
+/**
+ * Class for fast equivalent stress analysis complete message serializer.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 10:27:12
+ */
+public class FastESACompleteSerializer extends Serializer<FastESAComplete> {
+
+	@Override
+	public void write(Kryo kryo, Output output, FastESAComplete object) {
+		output.writeInt(object.getListenerHashCode());
+		output.writeDouble(object.getEquivalentStress());
+		output.writeString(object.getDownloadUrl());
+	}
+
+	@Override
+	public FastESAComplete read(Kryo kryo, Input input, Class<FastESAComplete> type) {
+		FastESAComplete object = new FastESAComplete();
+		object.setListenerHashCode(input.readInt());
+		object.setEquivalentStress(input.readDouble());
+		object.setDownloadUrl(input.readString());
+		return object;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.remote.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.message.FlightDCAPartialResult;
+
+/**
+ * Class for flight damage contribution analysis partial result message serializer. Uses the same flight encoding as {@link FlightDCACompleteSerializer}.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 20:19:37
+ */
+public class FlightDCAPartialResultSerializer extends Serializer<FlightDCAPartialResult> {
+
+	@Override
+	public void write(Kryo kryo, Output output, FlightDCAPartialResult object) {
+		output.writeInt(object.getListenerHashCode());
+		int size = object.getFlightCount();
+		output.writeVarInt(size, true);
+		if (size > 0) {
+			FlightDCACompleteSerializer.writeFlightNumbers(output, object.getFlightNumbers(), size);
+			output.writeDoubles(object.getFlightDamages());
+		}
+	}
+
+	@Override
+	public FlightDCAPartialResult read(Kryo kryo, Input input, Class<FlightDCAPartialResult> type) {
+		FlightDCAPartialResult object = new FlightDCAPartialResult();
+		object.setListenerHashCode(input.readInt());
+		int size = input.readVarInt(true);
+		if (size > 0) {
+			int[] flightNumbers = FlightDCACompleteSerializer.readFlightNumbers(input, size);
+			object.setDamages(flightNumbers, input.readDoubles(size));
+		}
+		return object;
+	}
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import equinox.analysisServer.task.AnalysisTask;
+import equinox.analysisServer.task.SafeAnalysis;
+
+/**
+ * Class for disk space aware admission control. Analysis tasks are held in a FIFO queue until a solver slot is free and the estimated scratch footprint of the next task fits above the free space watermarks of the scratch and SAFE material volumes. The next task is admitted regardless of its footprint when no task is running, since no space would be freed by waiting.
+ * <p>
+ * Scratch footprint of a task is estimated from its input archive size and the ratio of reclaimed bytes to archive size of previously completed tasks of the same type.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 15:21:08
+ */
+public class AdmissionControl {
+
+	/** Weight of the latest observation in footprint averages. */
+	private static final double SMOOTHING = 0.2;
+
+	/** Number of bytes in a megabyte. */
+	private static final long MB = 1024L * 1024L;
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Queue of tasks waiting for admission. */
+	private final ArrayDeque<AnalysisTask> pending_ = new ArrayDeque<>();
+
+	/** Ratios of scratch footprint to input archive size, mapped to task types. */
+	private final ConcurrentHashMap<Class<?>, Double> expansions_ = new ConcurrentHashMap<>();
+
+	/** Average scratch footprints, mapped to task types. Used when the input archive size is not known. */
+	private final ConcurrentHashMap<Class<?>, Double> footprints_ = new ConcurrentHashMap<>();
+
+	/** Scratch footprints reserved by the running tasks, mapped to tasks. */
+	private final ConcurrentHashMap<AnalysisTask, Long> reservations_ = new ConcurrentHashMap<>();
+
+	/** File stores of scratch and SAFE material volumes. Material store is null if the material directory doesn't exist. */
+	private final FileStore scratchStore_, materialStore_;
+
+	/** Free space watermarks of scratch and SAFE material volumes in bytes. */
+	private final long scratchWatermark_, materialWatermark_;
+
+	/** Default ratio of scratch footprint to input archive size. */
+	private final double defaultExpansion_;
+
+	/** Total reserved scratch footprint of the running tasks. */
+	private long reserved_ = 0L;
+
+	/** True if the head of the queue is currently held. Used to log holding only once. */
+	private boolean isHolding_ = false;
+
+	/** True if admission control is paused (queued tasks are held). */
+	private boolean isPaused_ = false;
+
+	/** True if admission control is stopped. */
+	private boolean isStopped_ = false;
+
+	/**
+	 * Creates admission control.
+	 *
+	 * @param server
+	 *            Server instance.
+	 * @throws IOException
+	 *             If the scratch volume cannot be accessed.
+	 */
+	public AdmissionControl(AnalysisServer server) throws IOException {
+
+		// set attributes
+		server_ = server;
+		scratchWatermark_ = Long.parseLong(server_.getProperties().getProperty("disk.scratchWatermark")) * MB;
+		materialWatermark_ = Long.parseLong(server_.getProperties().getProperty("disk.materialWatermark")) * MB;
+		defaultExpansion_ = Double.parseDouble(server_.getProperties().getProperty("disk.defaultExpansion"));
+
+		// get file stores
+		scratchStore_ = Files.getFileStore(Paths.get("").toAbsolutePath());
+		Path materialDirectory = Paths.get(server_.getProperties().getProperty("safe.materialDirectory"));
+		materialStore_ = Files.isDirectory(materialDirectory) ? Files.getFileStore(materialDirectory) : null;
+
+		// log info
+		server_.getLogger().info("Admission control created.");
+	}
+
+	/**
+	 * Submits given task for admission. The task is executed as soon as there is enough disk space for it. The size of its input archive is queried in background, so that the caller is not blocked by the central database.
+	 *
+	 * @param task
+	 *            Task to submit.
+	 */
+	public void submit(AnalysisTask task) {
+
+		// add to queue
+		synchronized (this) {
+			if (isStopped_)
+				return;
+			pending_.add(task);
+		}
+
+		// release tasks
+		release();
+
+		// input archive size already known
+		if (task.getInputArchiveSize() >= 0L) {
+			server_.getInputPrefetcher().wakeUp();
+			return;
+		}
+
+		// query input archive size in background (tasks admitted meanwhile are estimated from the average footprint of their type)
+		server_.getThreadPool().submit(() -> {
+			task.queryInputArchiveSize();
+			release();
+			server_.getInputPrefetcher().wakeUp();
+		});
+	}
+
+	/**
+	 * Releases queued tasks for execution as long as there are free solver slots and their estimated scratch footprints fit above the free space watermarks.
+	 */
+	public synchronized void release() {
+
+		// stopped or paused
+		if (isStopped_ || isPaused_)
+			return;
+
+		// loop over queued tasks
+		AnalysisTask task;
+		while ((task = pending_.peek()) != null) {
+
+			// no free solver slot
+			if (reservations_.size() >= server_.getConfig().getAnalysisSlots())
+				return;
+
+			// estimate footprint
+			long footprint = estimateFootprint(task);
+
+			// not enough space
+			if (!fits(task, footprint)) {
+
+				// hold until running tasks free their space
+				if (!reservations_.isEmpty()) {
+					if (!isHolding_) {
+						server_.getLogger().info(pending_.size() + " analysis requests held in queue due to low disk space.");
+						isHolding_ = true;
+					}
+					return;
+				}
+
+				// nothing running (holding would stall the queue forever)
+				server_.getLogger().warning("Analysis request admitted despite low disk space since no analysis is running. Estimated footprint: " + footprint + " bytes.");
+			}
+
+			// reserve footprint and submit task
+			pending_.poll();
+			isHolding_ = false;
+			reserved_ += footprint;
+			reservations_.put(task, footprint);
+			AnalysisTask admitted = task;
+			server_.getThreadPool().submit(() -> {
+				try {
+					admitted.run();
+				}
+				finally {
+					taskCompleted(admitted);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Records the actual scratch footprint of the given task. This is called once the temporary files of the task are deleted, so the queue is also released.
+	 *
+	 * @param task
+	 *            Completed task.
+	 * @param footprint
+	 *            Reclaimed scratch footprint of the task in bytes.
+	 */
+	public void recordFootprint(AnalysisTask task, long footprint) {
+
+		// update averages
+		long archiveSize = task.getInputArchiveSize();
+		if (footprint > 0L) {
+			footprints_.merge(task.getClass(), (double) footprint, AdmissionControl::smooth);
+			if (archiveSize > 0L) {
+				expansions_.merge(task.getClass(), (double) footprint / archiveSize, AdmissionControl::smooth);
+			}
+		}
+
+		// space freed
+		release();
+	}
+
+	/**
+	 * Returns the number of tasks waiting for admission.
+	 *
+	 * @return The number of tasks waiting for admission.
+	 */
+	public synchronized int getQueueSize() {
+		return pending_.size();
+	}
+
+	/**
+	 * Returns the number of running tasks.
+	 *
+	 * @return The number of running tasks.
+	 */
+	public int getRunningCount() {
+		return reservations_.size();
+	}
+
+	/**
+	 * Pauses admission control. Queued tasks are held until admission control is stopped, running tasks are not affected.
+	 */
+	public synchronized void pause() {
+		isPaused_ = true;
+	}
+
+	/**
+	 * Returns the first queued tasks waiting for admission.
+	 *
+	 * @param maxTasks
+	 *            Maximum number of tasks to return.
+	 * @return The first queued tasks waiting for admission.
+	 */
+	public synchronized List<AnalysisTask> getQueuedTasks(int maxTasks) {
+		List<AnalysisTask> tasks = new ArrayList<>(Math.min(maxTasks, pending_.size()));
+		for (AnalysisTask task : pending_) {
+			if (tasks.size() == maxTasks) {
+				break;
+			}
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	/**
+	 * Returns true if the input files of the given queued task can be prefetched without crossing the free space watermarks.
+	 *
+	 * @param task
+	 *            Queued task.
+	 * @param footprint
+	 *            Estimated scratch footprint of the task.
+	 * @return True if the input files of the given queued task can be prefetched.
+	 */
+	synchronized boolean canPrefetch(AnalysisTask task, long footprint) {
+		return fits(task, footprint);
+	}
+
+	/**
+	 * Stops admission control. Queued tasks are discarded (they are resumed after restart if the request journal is enabled).
+	 */
+	public synchronized void stop() {
+		isStopped_ = true;
+		if (!pending_.isEmpty()) {
+			if (server_.getRequestJournal().isEnabled()) {
+				server_.getLogger().info(pending_.size() + " queued analysis requests kept in request journal.");
+			}
+			else {
+				server_.getLogger().warning(pending_.size() + " queued analysis requests discarded.");
+			}
+			pending_.clear();
+		}
+	}
+
+	/**
+	 * Called when the given task is completed. Releases its reservation since its disk usage is now reflected in the free space of the volume.
+	 *
+	 * @param task
+	 *            Completed task.
+	 */
+	private void taskCompleted(AnalysisTask task) {
+		synchronized (this) {
+			Long footprint = reservations_.remove(task);
+			if (footprint != null) {
+				reserved_ -= footprint;
+			}
+		}
+		release();
+		server_.getInputPrefetcher().wakeUp();
+	}
+
+	/**
+	 * Estimates scratch footprint of the given task.
+	 *
+	 * @param task
+	 *            Task.
+	 * @return Estimated scratch footprint in bytes.
+	 */
+	long estimateFootprint(AnalysisTask task) {
+		long archiveSize = task.getInputArchiveSize();
+		if (archiveSize <= 0L)
+			return footprints_.getOrDefault(task.getClass(), 0.0).longValue();
+		return (long) (archiveSize * expansions_.getOrDefault(task.getClass(), defaultExpansion_));
+	}
+
+	/**
+	 * Returns exponentially smoothed average of the given values.
+	 *
+	 * @param previous
+	 *            Previous average.
+	 * @param latest
+	 *            Latest observation.
+	 * @return The updated average.
+	 */
+	private static Double smooth(Double previous, Double latest) {
+		return (1.0 - SMOOTHING) * previous + SMOOTHING * latest;
+	}
+
+	/**
+	 * Returns true if given task fits above the free space watermarks.
+	 *
+	 * @param task
+	 *            Task to check.
+	 * @param footprint
+	 *            Estimated scratch footprint of the task.
+	 * @return True if given task fits above the free space watermarks.
+	 */
+	private boolean fits(AnalysisTask task, long footprint) {
+
+		try {
+
+			// check scratch volume
+			if (scratchStore_.getUsableSpace() - reserved_ - footprint < scratchWatermark_)
+				return false;
+
+			// check material volume
+			if (task instanceof SafeAnalysis && materialStore_ != null && materialStore_.getUsableSpace() < materialWatermark_)
+				return false;
+		}
+
+		// exception occurred during querying free space
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during querying free disk space.", e);
+		}
+
+		// fits
+		return true;
+	}
+}
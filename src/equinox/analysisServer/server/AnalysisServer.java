@@ -19,27 +19,32 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.esotericsoftware.kryonet.Server;
-
 import equinox.analysisServer.EntryPoint;
 import equinox.analysisServer.client.AnalysisClient;
 import equinox.analysisServer.remote.data.AnalysisServerStatistic;
 import equinox.analysisServer.task.CollectServerStatistics;
+import equinox.analysisServer.transport.KryoNetTransport;
+import equinox.analysisServer.transport.LoopbackTransport;
+import equinox.analysisServer.transport.Transport;
 import equinox.analysisServer.utility.Utility;
 
 /**
@@ -51,9 +56,21 @@ import equinox.analysisServer.utility.Utility;
  */
 public class AnalysisServer extends Thread {
 
+	/** Path to server configuration file. */
+	private static final Path CONFIG_FILE = Paths.get("resources/config.properties");
+
 	/** Server properties. */
 	private final Properties properties_;
 
+	/** Typed configuration snapshot. Replaced as a whole when the configuration changes. */
+	private volatile ServerConfig config_;
+
+	/** Configuration watcher, or null if configuration is not watched. */
+	private ConfigWatcher configWatcher_ = null;
+
+	/** Scheduled statistics collection, or null if statistics are not collected. */
+	private ScheduledFuture<?> statisticsCollection_ = null;
+
 	/** Server logger. */
 	private final Logger logger_;
 
@@ -66,14 +83,41 @@ public class AnalysisServer extends Thread {
 	/** Client lobby. */
 	private final Lobby lobby_;
 
-	/** List containing the connected clients. */
-	private final List<AnalysisClient> clients_;
+	/** Scratch reaper. */
+	private final ScratchReaper scratchReaper_;
+
+	/** Input prefetcher. */
+	private final InputPrefetcher inputPrefetcher_;
+
+	/** Analysis progress estimator. */
+	private final ProgressEstimator progressEstimator_;
+
+	/** Analysis result cache. */
+	private final ResultCache resultCache_;
 
-	/** The network server. */
-	private final Server networkServer_;
+	/** Analysis failure cache. */
+	private final FailureCache failureCache_;
+
+	/** Mailbox of undelivered analysis results. */
+	private final ResultMailbox resultMailbox_;
+
+	/** Journal of accepted analysis requests. */
+	private final RequestJournal requestJournal_;
+
+	/** Connected clients, mapped to their aliases. */
+	private final ConcurrentHashMap<String, AnalysisClient> clients_;
+
+	/** The network transport. */
+	private final Transport transport_;
 
 	/** Server health monitor parameters. */
-	private final AtomicInteger analysisRequests_, failedAnalyses_;
+	private final AtomicInteger analysisRequests_, failedAnalyses_, prefetchHits_, prefetchMisses_;
+
+	/** Analysis wall time saved by input prefetching in milliseconds. */
+	private final AtomicLong prefetchSavedTime_;
+
+	/** Bytes held by partial messages of all clients. */
+	private final AtomicLong partialMessageBytes_ = new AtomicLong();
 
 	/** Data server statistics. */
 	private final ArrayList<AnalysisServerStatistic> statistics_;
@@ -81,6 +125,12 @@ public class AnalysisServer extends Thread {
 	/** True if the server is shut down. */
 	private volatile boolean isShutDown_ = false;
 
+	/** True if the server is draining running analyses before shutdown. */
+	private volatile boolean isDraining_ = false;
+
+	/** End time of drain budget in milliseconds. */
+	private volatile long drainDeadline_ = 0L;
+
 	/**
 	 * Creates equinox server.
 	 *
@@ -93,29 +143,54 @@ public class AnalysisServer extends Thread {
 		super("Equinox Analysis Server");
 
 		// read server properties
-		properties_ = Utility.loadProperties(Paths.get("resources/config.properties"));
+		properties_ = Utility.loadProperties(CONFIG_FILE);
+		config_ = new ServerConfig(properties_);
 
 		// setup server logger
 		logger_ = Utility.setupLogger(properties_.getProperty("log.filename"), properties_.getProperty("log.level"));
 
-		// setup network server
-		networkServer_ = Utility.setupNetworkServer(this);
+		// setup network transport
+		transport_ = properties_.getProperty("ns.transport").equals("loopback") ? new LoopbackTransport(this) : new KryoNetTransport(this);
 
 		// create thread pools
 		threadPool_ = Executors.newCachedThreadPool();
 		scheduledThreadPool_ = Executors.newSingleThreadScheduledExecutor();
 		logger_.info("Thread pools created.");
 
+		// create scratch reaper
+		scratchReaper_ = new ScratchReaper(this);
+
 		// initialize server statistic counters
 		analysisRequests_ = new AtomicInteger();
 		failedAnalyses_ = new AtomicInteger();
+		prefetchHits_ = new AtomicInteger();
+		prefetchMisses_ = new AtomicInteger();
+		prefetchSavedTime_ = new AtomicLong();
 
 		// create client list
-		clients_ = Collections.synchronizedList(new ArrayList<AnalysisClient>());
+		clients_ = new ConcurrentHashMap<>();
+
+		// create progress estimator
+		progressEstimator_ = new ProgressEstimator();
+
+		// create result cache
+		resultCache_ = new ResultCache(this);
+
+		// create failure cache
+		failureCache_ = new FailureCache(this);
+
+		// create result mailbox
+		resultMailbox_ = new ResultMailbox(this);
+
+		// create request journal
+		requestJournal_ = new RequestJournal(this);
 
 		// create client lobby
 		lobby_ = new Lobby(this);
 
+		// create input prefetcher
+		inputPrefetcher_ = new InputPrefetcher(this);
+
 		// create server statistics
 		statistics_ = new ArrayList<>();
 
@@ -131,23 +206,57 @@ public class AnalysisServer extends Thread {
 
 		try {
 
-			// bind server to its port
-			networkServer_.bind(Integer.parseInt(properties_.getProperty("ns.port")));
+			// sweep orphaned temporary files and start scratch reaper
+			scratchReaper_.sweepOrphans();
+			scratchReaper_.start();
+
+			// start input prefetcher
+			if (properties_.getProperty("prefetch.inputs").equals("yes")) {
+				inputPrefetcher_.start();
+			}
 
-			// start the network server
-			networkServer_.start();
+			// resume analysis requests of the previous run and start request journal
+			if (requestJournal_.isEnabled()) {
+				requestJournal_.recover();
+				requestJournal_.start();
+			}
+
+			// start the network transport
+			transport_.start();
+
+			// schedule periodic admission of held analysis requests
+			long checkPeriod = Long.parseLong(properties_.getProperty("disk.checkPeriod"));
+			scheduledThreadPool_.scheduleWithFixedDelay(lobby_.getAdmissionControl()::release, checkPeriod, checkPeriod, TimeUnit.SECONDS);
+
+			// schedule UDP heartbeats
+			if (Integer.parseInt(properties_.getProperty("ns.udpPort")) > 0) {
+				long heartbeat = Long.parseLong(properties_.getProperty("ns.udpKeepAlive"));
+				scheduledThreadPool_.scheduleWithFixedDelay(this::sendHeartbeats, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+			}
+
+			// schedule expiry of incomplete partial messages
+			long expiry = Long.parseLong(properties_.getProperty("ns.partialExpiry"));
+			scheduledThreadPool_.scheduleWithFixedDelay(this::expirePartialMessages, expiry, expiry, TimeUnit.SECONDS);
+
+			// schedule expiry of undelivered analysis results
+			if (resultMailbox_.isEnabled()) {
+				scheduledThreadPool_.scheduleWithFixedDelay(this::expireMailbox, 1, 1, TimeUnit.MINUTES);
+			}
 
 			// schedule statistics collection
-			if (properties_.getProperty("stat.collect").equals("yes")) {
-				long period = Long.parseLong(properties_.getProperty("stat.period"));
-				scheduledThreadPool_.scheduleAtFixedRate(new CollectServerStatistics(this), 30, period, TimeUnit.SECONDS);
+			scheduleStatistics(30);
+
+			// watch configuration file
+			if (properties_.getProperty("config.watch").equals("yes")) {
+				configWatcher_ = new ConfigWatcher(this, CONFIG_FILE);
+				configWatcher_.start();
 			}
 
 			// schedule server stop
 			if (properties_.getProperty("stop.schedule").equals("yes")) {
 				long period = Long.parseLong(properties_.getProperty("stop.delay"));
 				boolean restart = properties_.getProperty("stop.restart").equals("yes");
-				scheduledThreadPool_.schedule(() -> stopServer(restart, true), period, TimeUnit.HOURS);
+				scheduledThreadPool_.schedule(() -> new Thread(() -> stopServer(restart, true), "Equinox Server Stopper").start(), period, TimeUnit.HOURS);
 			}
 		}
 
@@ -167,27 +276,59 @@ public class AnalysisServer extends Thread {
 	 *            True to exit JVM.
 	 */
 	public void stopServer(boolean restart, boolean exit) {
+		stopServer(restart, exit, null);
+	}
 
-		// already shut down
-		if (isShutDown_)
-			return;
+	/**
+	 * Stops the server. The server is first drained: new analysis requests are rejected with a retry hint, queued requests are held and running analyses are given the drain budget to complete. Analyses still running after the drain budget are interrupted. Interrupted and queued requests are resumed after restart if the request journal is enabled.
+	 *
+	 * @param restart
+	 *            True to restart the server.
+	 * @param exit
+	 *            True to exit JVM.
+	 * @param listener
+	 *            Listener to notify with drain progress, or null.
+	 */
+	public void stopServer(boolean restart, boolean exit, Consumer<String> listener) {
 
-		// set shut down
-		isShutDown_ = true;
+		// already shut down
+		synchronized (this) {
+			if (isShutDown_)
+				return;
+			isShutDown_ = true;
+		}
 
 		// log stopping message
 		logger_.info("Stopping server...");
 
+		// drain running analyses
+		drain(listener);
+
+		// stop configuration watcher
+		if (configWatcher_ != null) {
+			configWatcher_.stopWatcher();
+		}
+
 		// stop lobby
 		lobby_.stop();
 
+		// stop input prefetcher
+		inputPrefetcher_.stopPrefetcher();
+
 		// shutdown thread pool
-		Utility.shutdownThreadPool(threadPool_, logger_);
-		Utility.shutdownThreadPool(scheduledThreadPool_, logger_);
+		long terminationWait = Long.parseLong(properties_.getProperty("stop.terminationWait"));
+		Utility.shutdownThreadPool(threadPool_, terminationWait, logger_);
+		Utility.shutdownThreadPool(scheduledThreadPool_, terminationWait, logger_);
 		logger_.info("Thread pools shutdown.");
 
+		// stop request journal
+		requestJournal_.stopJournal();
+
+		// stop scratch reaper
+		scratchReaper_.stopReaper();
+
 		// stop network server
-		networkServer_.stop();
+		transport_.stop();
 		logger_.info("Network server shutdown.");
 
 		// close logger
@@ -260,6 +401,99 @@ public class AnalysisServer extends Thread {
 		return properties_;
 	}
 
+	/**
+	 * Returns typed configuration snapshot. The returned snapshot doesn't change, callers should get the snapshot at each use to see configuration changes.
+	 *
+	 * @return Typed configuration snapshot.
+	 */
+	public ServerConfig getConfig() {
+		return config_;
+	}
+
+	/**
+	 * Sets given server property and applies the change to the running server.
+	 *
+	 * @param key
+	 *            Property key.
+	 * @param value
+	 *            Property value.
+	 */
+	public synchronized void setProperty(String key, String value) {
+		properties_.setProperty(key, value);
+		applyConfig(new ServerConfig(properties_));
+	}
+
+	/**
+	 * Reloads server configuration from the configuration file and applies the changes to the running server. Only the properties covered by the configuration snapshot are reloaded (see <code>ServerConfig.KEYS</code>). The current configuration is kept if the file is invalid. Running and queued work is not affected.
+	 */
+	public synchronized void reloadConfig() {
+
+		try {
+
+			// load and validate configuration
+			Properties properties = Utility.loadProperties(CONFIG_FILE);
+			ServerConfig config = new ServerConfig(properties);
+
+			// apply configuration (other properties are only read at startup, so they are not changed)
+			for (String key : ServerConfig.KEYS) {
+				properties_.setProperty(key, properties.getProperty(key));
+			}
+			applyConfig(config);
+			logger_.info("Server configuration reloaded.");
+		}
+
+		// exception occurred during reloading configuration
+		catch (Exception e) {
+			logger_.log(Level.WARNING, "Exception occurred during reloading server configuration. Current configuration is kept.", e);
+		}
+	}
+
+	/**
+	 * Replaces the configuration snapshot with the given one and applies the changes to the running server.
+	 *
+	 * @param config
+	 *            New configuration snapshot.
+	 */
+	private void applyConfig(ServerConfig config) {
+
+		// replace snapshot
+		ServerConfig previous = config_;
+		config_ = config;
+
+		// log level
+		logger_.setLevel(config.getLogLevel());
+
+		// more solver slots (release held analyses)
+		if (config.getAnalysisSlots() > previous.getAnalysisSlots()) {
+			lobby_.getAdmissionControl().release();
+		}
+
+		// statistics collection
+		if (config.isCollectStatistics() != previous.isCollectStatistics() || config.getStatisticsPeriod() != previous.getStatisticsPeriod()) {
+			scheduleStatistics(config.getStatisticsPeriod());
+		}
+	}
+
+	/**
+	 * Schedules statistics collection according to the current configuration. Previously scheduled collection (if any) is cancelled.
+	 *
+	 * @param initialDelay
+	 *            Delay before the first collection in seconds.
+	 */
+	private synchronized void scheduleStatistics(long initialDelay) {
+
+		// cancel current schedule
+		if (statisticsCollection_ != null) {
+			statisticsCollection_.cancel(false);
+			statisticsCollection_ = null;
+		}
+
+		// schedule
+		if (config_.isCollectStatistics() && !isShutDown_) {
+			statisticsCollection_ = scheduledThreadPool_.scheduleAtFixedRate(new CollectServerStatistics(this), initialDelay, config_.getStatisticsPeriod(), TimeUnit.SECONDS);
+		}
+	}
+
 	/**
 	 * Returns server logger.
 	 *
@@ -279,12 +513,214 @@ public class AnalysisServer extends Thread {
 	}
 
 	/**
-	 * Returns network server.
+	 * Returns the counter of bytes held by partial messages of all clients.
 	 *
-	 * @return Network server.
+	 * @return The counter of bytes held by partial messages of all clients.
+	 */
+	public AtomicLong getPartialMessageBytes() {
+		return partialMessageBytes_;
+	}
+
+	/**
+	 * Sends heartbeats to all clients over UDP.
+	 */
+	private void sendHeartbeats() {
+		for (AnalysisClient client : clients_.values()) {
+			client.sendHeartbeat();
+		}
+	}
+
+	/**
+	 * Discards incomplete partial messages of all clients which didn't receive any fragment within the expiry period.
 	 */
-	public Server getNetworkServer() {
-		return networkServer_;
+	private void expirePartialMessages() {
+		int expired = 0;
+		for (AnalysisClient client : clients_.values()) {
+			expired += client.expirePartialMessages();
+		}
+		if (expired > 0) {
+			logger_.info(expired + " incomplete partial messages expired.");
+		}
+	}
+
+	/**
+	 * Drains the server. New analysis requests are rejected and queued requests are held, while running analyses are given the drain budget to complete. Drain progress is logged and passed to the given listener periodically.
+	 *
+	 * @param listener
+	 *            Listener to notify with drain progress, or null.
+	 */
+	private void drain(Consumer<String> listener) {
+
+		// pause admission of queued requests
+		AdmissionControl admission = lobby_.getAdmissionControl();
+		admission.pause();
+
+		// set draining
+		long budget = TimeUnit.MINUTES.toMillis(Long.parseLong(properties_.getProperty("stop.drainBudget")));
+		long period = TimeUnit.SECONDS.toMillis(Long.parseLong(properties_.getProperty("stop.drainReport")));
+		drainDeadline_ = System.currentTimeMillis() + budget;
+		isDraining_ = true;
+
+		try {
+
+			// wait for running analyses
+			long lastReport = 0L;
+			while (admission.getRunningCount() > 0 && System.currentTimeMillis() < drainDeadline_) {
+
+				// report progress
+				if (System.currentTimeMillis() - lastReport >= period) {
+					lastReport = System.currentTimeMillis();
+					String status = getDrainStatus();
+					logger_.info(status);
+					if (listener != null) {
+						listener.accept(status);
+					}
+				}
+
+				// wait
+				Thread.sleep(1000L);
+			}
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// drain complete
+		finally {
+			isDraining_ = false;
+		}
+
+		// report result
+		int running = admission.getRunningCount(), queued = admission.getQueueSize();
+		String status = "Drain complete. " + running + " running analyses will be interrupted, " + queued + " queued analyses " + (requestJournal_.isEnabled() ? "kept in request journal." : "discarded.");
+		logger_.info(status);
+		if (listener != null) {
+			listener.accept(status);
+		}
+	}
+
+	/**
+	 * Discards undelivered analysis results which are not collected by their clients within the time to live.
+	 */
+	private void expireMailbox() {
+		int expired = resultMailbox_.expire();
+		if (expired > 0) {
+			logger_.info(expired + " undelivered analysis results expired.");
+		}
+	}
+
+	/**
+	 * Returns scheduled thread pool.
+	 *
+	 * @return Scheduled thread pool.
+	 */
+	public ScheduledExecutorService getScheduledThreadPool() {
+		return scheduledThreadPool_;
+	}
+
+	/**
+	 * Returns scratch reaper.
+	 *
+	 * @return Scratch reaper.
+	 */
+	public ScratchReaper getScratchReaper() {
+		return scratchReaper_;
+	}
+
+	/**
+	 * Returns analysis progress estimator.
+	 *
+	 * @return Analysis progress estimator.
+	 */
+	public ProgressEstimator getProgressEstimator() {
+		return progressEstimator_;
+	}
+
+	/**
+	 * Returns analysis result cache.
+	 *
+	 * @return Analysis result cache.
+	 */
+	public ResultCache getResultCache() {
+		return resultCache_;
+	}
+
+	/**
+	 * Returns analysis failure cache.
+	 *
+	 * @return Analysis failure cache.
+	 */
+	public FailureCache getFailureCache() {
+		return failureCache_;
+	}
+
+	/**
+	 * Returns mailbox of undelivered analysis results.
+	 *
+	 * @return Mailbox of undelivered analysis results.
+	 */
+	public ResultMailbox getResultMailbox() {
+		return resultMailbox_;
+	}
+
+	/**
+	 * Returns journal of accepted analysis requests.
+	 *
+	 * @return Journal of accepted analysis requests.
+	 */
+	public RequestJournal getRequestJournal() {
+		return requestJournal_;
+	}
+
+	/**
+	 * Returns true if the server is shut down (or shutting down).
+	 *
+	 * @return True if the server is shut down.
+	 */
+	public boolean isShutDown() {
+		return isShutDown_;
+	}
+
+	/**
+	 * Returns true if the server is draining running analyses before shutdown.
+	 *
+	 * @return True if the server is draining.
+	 */
+	public boolean isDraining() {
+		return isDraining_;
+	}
+
+	/**
+	 * Returns the drain progress, or null if the server is not draining.
+	 *
+	 * @return The drain progress, or null if the server is not draining.
+	 */
+	public String getDrainStatus() {
+		if (!isDraining_)
+			return null;
+		long remaining = Math.max(0L, TimeUnit.MILLISECONDS.toSeconds(drainDeadline_ - System.currentTimeMillis()));
+		AdmissionControl admission = lobby_.getAdmissionControl();
+		return "Draining: " + admission.getRunningCount() + " analyses running, " + admission.getQueueSize() + " queued, " + remaining + " seconds of drain budget left.";
+	}
+
+	/**
+	 * Returns input prefetcher.
+	 *
+	 * @return Input prefetcher.
+	 */
+	public InputPrefetcher getInputPrefetcher() {
+		return inputPrefetcher_;
+	}
+
+	/**
+	 * Returns network transport.
+	 *
+	 * @return Network transport.
+	 */
+	public Transport getTransport() {
+		return transport_;
 	}
 
 	/**
@@ -297,12 +733,12 @@ public class AnalysisServer extends Thread {
 	}
 
 	/**
-	 * Returns the connected clients of the server.
+	 * Returns the connected clients of the server. The returned collection is a live view, it can be iterated without locking while clients connect and disconnect.
 	 *
-	 * @return List containing the connected clients of the server.
+	 * @return The connected clients of the server.
 	 */
-	public List<AnalysisClient> getClients() {
-		return clients_;
+	public Collection<AnalysisClient> getClients() {
+		return clients_.values();
 	}
 
 	/**
@@ -313,44 +749,25 @@ public class AnalysisServer extends Thread {
 	 * @return The client with the given alias or <code>null</code> if no client is connected with the given alias.
 	 */
 	public AnalysisClient getClient(String alias) {
-
-		// sync over clients
-		synchronized (clients_) {
-
-			// get clients
-			Iterator<AnalysisClient> i = clients_.iterator();
-
-			// loop over clients
-			while (i.hasNext()) {
-
-				// get client
-				AnalysisClient c = i.next();
-
-				// client alias matches
-				if (c.getAlias().equals(alias))
-					return c;
-			}
-		}
-
-		// client doesn't exist
-		return null;
+		return clients_.get(alias);
 	}
 
 	/**
-	 * Creates and adds the given client.
+	 * Adds the given client, if no other client is connected with the same alias. The alias is claimed atomically, so that concurrent handshakes cannot add two clients with the same alias.
 	 *
 	 * @param client
 	 *            Client to add.
+	 * @return True if the client is added, false if the alias is already claimed by another client.
 	 */
-	public void addClient(AnalysisClient client) {
+	public boolean addClient(AnalysisClient client) {
 
-		// add client
-		synchronized (clients_) {
-			clients_.add(client);
-		}
+		// claim alias
+		if (clients_.putIfAbsent(client.getAlias(), client) != null)
+			return false;
 
 		// log added info
 		logger_.info("Client '" + client.getAlias() + "' added to connected clients.");
+		return true;
 	}
 
 	/**
@@ -361,10 +778,9 @@ public class AnalysisServer extends Thread {
 	 */
 	public void removeClient(AnalysisClient client) {
 
-		// remove client
-		synchronized (clients_) {
-			clients_.remove(client);
-		}
+		// remove client (only if the alias is still claimed by this client)
+		if (!clients_.remove(client.getAlias(), client))
+			return;
 
 		// log removal
 		logger_.info("Client '" + client.getAlias() + "' removed from connected clients.");
@@ -405,4 +821,49 @@ public class AnalysisServer extends Thread {
 	public int getFailedAnalyses() {
 		return failedAnalyses_.getAndSet(0);
 	}
+
+	/**
+	 * Records an analysis task which found its input files prefetched.
+	 *
+	 * @param savedTime
+	 *            Analysis wall time saved by prefetching in milliseconds.
+	 */
+	public void recordPrefetchHit(long savedTime) {
+		prefetchHits_.incrementAndGet();
+		prefetchSavedTime_.addAndGet(savedTime);
+	}
+
+	/**
+	 * Records an analysis task which had to download its own input files.
+	 */
+	public void recordPrefetchMiss() {
+		prefetchMisses_.incrementAndGet();
+	}
+
+	/**
+	 * Returns prefetch hits and resets the value.
+	 *
+	 * @return Prefetch hits.
+	 */
+	public int getPrefetchHits() {
+		return prefetchHits_.getAndSet(0);
+	}
+
+	/**
+	 * Returns prefetch misses and resets the value.
+	 *
+	 * @return Prefetch misses.
+	 */
+	public int getPrefetchMisses() {
+		return prefetchMisses_.getAndSet(0);
+	}
+
+	/**
+	 * Returns analysis wall time saved by prefetching (in milliseconds) and resets the value.
+	 *
+	 * @return Analysis wall time saved by prefetching in milliseconds.
+	 */
+	public long getPrefetchSavedTime() {
+		return prefetchSavedTime_.getAndSet(0L);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.logging.Level;
+
+/**
+ * Class for configuration watcher. The watcher is a background thread which watches the directory of the configuration file, and reloads the server configuration whenever the file is modified.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 20:47:52
+ */
+public class ConfigWatcher extends Thread {
+
+	/** Time to wait for further events of the same file write (in milliseconds). */
+	private static final long SETTLE_TIME = 500L;
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Path to configuration file. */
+	private final Path file_;
+
+	/** Watch service. */
+	private final WatchService watchService_;
+
+	/**
+	 * Creates configuration watcher.
+	 *
+	 * @param server
+	 *            Server instance.
+	 * @param file
+	 *            Path to configuration file.
+	 * @throws IOException
+	 *             If the directory of the configuration file cannot be watched.
+	 */
+	public ConfigWatcher(AnalysisServer server, Path file) throws IOException {
+
+		// create thread
+		super("Equinox Config Watcher");
+		setDaemon(true);
+
+		// set attributes
+		server_ = server;
+		file_ = file.toAbsolutePath();
+
+		// register directory
+		watchService_ = FileSystems.getDefault().newWatchService();
+		file_.getParent().register(watchService_, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+		// log info
+		server_.getLogger().info("Configuration watcher created.");
+	}
+
+	/**
+	 * Stops the watcher.
+	 */
+	public void stopWatcher() {
+		try {
+			watchService_.close();
+		}
+
+		// exception occurred during closing watch service
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during stopping configuration watcher.", e);
+		}
+	}
+
+	@Override
+	public void run() {
+
+		try {
+
+			// loop till stopped
+			while (true) {
+
+				// wait for events
+				WatchKey key = watchService_.take();
+
+				// check if configuration file changed
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() != StandardWatchEventKinds.OVERFLOW && file_.getFileName().equals(event.context())) {
+						changed = true;
+					}
+				}
+				key.reset();
+
+				// reload configuration once the file write settles
+				if (changed) {
+					Thread.sleep(SETTLE_TIME);
+					WatchKey pending = watchService_.poll();
+					if (pending != null) {
+						pending.pollEvents();
+						pending.reset();
+					}
+					server_.reloadConfig();
+				}
+			}
+		}
+
+		// watcher stopped
+		catch (ClosedWatchServiceException | InterruptedException e) {
+			// no implementation
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import equinox.analysisServer.remote.message.AnalysisFailed;
+
+/**
+ * Class for negative analysis result cache. Failures which are known to be caused by the inputs (such as SAFE error outputs) are remembered for a limited time, keyed by the result cache key of the task. Repeated requests with the same inputs are then failed without running the solver.
+ * <p>
+ * The cache is held in memory and bounded by its maximum number of entries. Oldest entries are evicted first. Download URLs of failure outputs are not cached, since the uploaded files belong to the client which made the original request.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 09:42:17
+ */
+public class FailureCache {
+
+	/** Cached failures mapped to keys, in insertion order. */
+	private final LinkedHashMap<String, Failure> entries_;
+
+	/** Time to live of entries in milliseconds. */
+	private final long ttl_;
+
+	/** True if the cache is enabled. */
+	private final boolean isEnabled_;
+
+	/** Cache hit counter. */
+	private final AtomicInteger hits_ = new AtomicInteger();
+
+	/**
+	 * Creates failure cache.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public FailureCache(AnalysisServer server) {
+
+		// set attributes
+		isEnabled_ = server.getProperties().getProperty("cache.failures").equals("yes");
+		ttl_ = TimeUnit.MINUTES.toMillis(Long.parseLong(server.getProperties().getProperty("cache.failureTTL")));
+		int maxEntries = Integer.parseInt(server.getProperties().getProperty("cache.maxFailures"));
+
+		// create bounded map
+		entries_ = new LinkedHashMap<String, Failure>(16, 0.75f, false) {
+
+			/** Serial ID. */
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Failure> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns true if the cache is enabled.
+	 *
+	 * @return True if the cache is enabled.
+	 */
+	public boolean isEnabled() {
+		return isEnabled_;
+	}
+
+	/**
+	 * Returns the cached failure for the given key as a new analysis failed message.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @param listenerHashCode
+	 *            Listener hash code of the requesting client.
+	 * @return Analysis failed message, or null if no unexpired failure is cached for the given key.
+	 */
+	public AnalysisFailed get(String key, int listenerHashCode) {
+
+		// cache disabled
+		if (!isEnabled_)
+			return null;
+
+		// get entry
+		Failure failure;
+		synchronized (this) {
+
+			// not found
+			failure = entries_.get(key);
+			if (failure == null)
+				return null;
+
+			// expired
+			if (failure.expiry_ < System.currentTimeMillis()) {
+				entries_.remove(key);
+				return null;
+			}
+		}
+
+		// create message
+		hits_.incrementAndGet();
+		AnalysisFailed message = new AnalysisFailed();
+		message.setListenerHashCode(listenerHashCode);
+		message.setErrorCode(AnalysisFailed.INPUT_ERROR);
+		message.setExceptionMessage(failure.exceptionMessage_);
+		return message;
+	}
+
+	/**
+	 * Puts given analysis failure to the cache. The download URL of the failure outputs (if any) is not cached.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @param message
+	 *            Analysis failed message sent to the client.
+	 */
+	public void put(String key, AnalysisFailed message) {
+
+		// cache disabled
+		if (!isEnabled_)
+			return;
+
+		// put entry
+		Failure failure = new Failure(message.getExceptionMessage(), System.currentTimeMillis() + ttl_);
+		synchronized (this) {
+			entries_.remove(key);
+			entries_.put(key, failure);
+		}
+	}
+
+	/**
+	 * Removes the cached failure for the given key (if any).
+	 *
+	 * @param key
+	 *            Cache key.
+	 */
+	public synchronized void remove(String key) {
+		entries_.remove(key);
+	}
+
+	/**
+	 * Returns number of cache hits and resets the value.
+	 *
+	 * @return Number of cache hits.
+	 */
+	public int getHits() {
+		return hits_.getAndSet(0);
+	}
+
+	/**
+	 * Returns number of cache entries (including the expired ones which are not yet removed).
+	 *
+	 * @return Number of cache entries.
+	 */
+	public synchronized int getEntryCount() {
+		return entries_.size();
+	}
+
+	/**
+	 * Inner class for cached failure.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 09:48:03
+	 */
+	private static final class Failure {
+
+		/** Exception message (including the messages of its causes). */
+		private final String exceptionMessage_;
+
+		/** Expiry time in milliseconds. */
+		private final long expiry_;
+
+		/**
+		 * Creates cached failure.
+		 *
+		 * @param exceptionMessage
+		 *            Exception message.
+		 * @param expiry
+		 *            Expiry time in milliseconds.
+		 */
+		private Failure(String exceptionMessage, long expiry) {
+			exceptionMessage_ = exceptionMessage;
+			expiry_ = expiry;
+		}
+	}
+}
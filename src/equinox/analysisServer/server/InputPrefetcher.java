@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+import equinox.analysisServer.task.AnalysisTask;
+
+/**
+ * Class for input prefetcher. The prefetcher is a single background thread which looks ahead in the admission queue and downloads and extracts the input files of the next queued analysis requests, so that they are ready when a solver slot becomes free.
+ * <p>
+ * Prefetching is limited by a disk budget for prefetched inputs, the free space watermarks of the admission control and a download bandwidth limit, so that it doesn't compete with the running analyses.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 16:48:27
+ */
+public class InputPrefetcher extends Thread {
+
+	/** Number of bytes in a megabyte. */
+	private static final long MB = 1024L * 1024L;
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Tasks with prefetched input files which are not consumed yet. Only accessed by the prefetcher thread. */
+	private final HashSet<AnalysisTask> prefetched_ = new HashSet<>();
+
+	/** Wake up signal. */
+	private final Semaphore wakeUp_ = new Semaphore(0);
+
+	/** Number of queued requests to look ahead. */
+	private final int lookahead_;
+
+	/** Disk budget for prefetched inputs in bytes. */
+	private final long maxSize_;
+
+	/** Download bandwidth limit in bytes per second, or 0 for unlimited. */
+	private final long bandwidth_;
+
+	/** True if the prefetcher is stopped. */
+	private volatile boolean isStopped_ = false;
+
+	/**
+	 * Creates input prefetcher.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public InputPrefetcher(AnalysisServer server) {
+
+		// create thread
+		super("Equinox Input Prefetcher");
+		setDaemon(true);
+
+		// set attributes
+		server_ = server;
+		lookahead_ = Integer.parseInt(server_.getProperties().getProperty("prefetch.lookahead"));
+		maxSize_ = Long.parseLong(server_.getProperties().getProperty("prefetch.maxSize")) * MB;
+		bandwidth_ = Long.parseLong(server_.getProperties().getProperty("prefetch.bandwidth")) * 1024L;
+
+		// log info
+		server_.getLogger().info("Input prefetcher created.");
+	}
+
+	/**
+	 * Signals the prefetcher to look ahead in the admission queue. This is called when the queue or the running tasks change.
+	 */
+	public void wakeUp() {
+		wakeUp_.release();
+	}
+
+	/**
+	 * Stops the prefetcher. A download in progress is completed before the prefetcher terminates.
+	 */
+	public void stopPrefetcher() {
+
+		// not started
+		if (!isAlive())
+			return;
+
+		// set stopped
+		isStopped_ = true;
+		interrupt();
+
+		// wait for termination
+		try {
+			join(60000);
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// log info
+		server_.getLogger().info("Input prefetcher stopped.");
+	}
+
+	@Override
+	public void run() {
+
+		// loop till stopped
+		while (!isStopped_) {
+
+			try {
+
+				// wait for signal
+				wakeUp_.acquire();
+				wakeUp_.drainPermits();
+
+				// prefetch queued inputs
+				while (!isStopped_ && prefetchNext()) {
+					continue;
+				}
+			}
+
+			// interrupted
+			catch (InterruptedException e) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Prefetches the input files of the next prefetchable queued task within the disk budget.
+	 *
+	 * @return True if a task was prefetched.
+	 */
+	private boolean prefetchNext() {
+
+		// get queued tasks
+		AdmissionControl admissionControl = server_.getLobby().getAdmissionControl();
+		List<AnalysisTask> tasks = admissionControl.getQueuedTasks(lookahead_);
+
+		// compute disk usage of all prefetched inputs (not only the ones in the lookahead window)
+		long used = 0L;
+		Iterator<AnalysisTask> iterator = prefetched_.iterator();
+		while (iterator.hasNext()) {
+			long bytes = iterator.next().getPrefetchedBytes();
+			if (bytes == 0L) {
+				iterator.remove();
+			}
+			else {
+				used += bytes;
+			}
+		}
+
+		// loop over tasks
+		for (AnalysisTask task : tasks) {
+
+			// already prefetched or started
+			if (!task.isPrefetchable()) {
+				continue;
+			}
+
+			// out of budget
+			long footprint = admissionControl.estimateFootprint(task);
+			if (used + footprint > maxSize_ || !admissionControl.canPrefetch(task, footprint))
+				return false;
+
+			// prefetch input files
+			try {
+				if (task.prefetchInputFiles(bandwidth_) > 0L) {
+					prefetched_.add(task);
+				}
+				return true;
+			}
+
+			// exception occurred during prefetching (task will download its own inputs)
+			catch (Exception e) {
+				server_.getLogger().log(Level.WARNING, "Exception occurred during prefetching input files of analysis request.", e);
+				return false;
+			}
+		}
+
+		// nothing to prefetch
+		return false;
+	}
+}
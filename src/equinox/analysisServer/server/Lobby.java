@@ -16,8 +16,12 @@
 package equinox.analysisServer.server;
 
 import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.remote.Compression;
+import equinox.analysisServer.remote.message.AnalysisFailed;
 import equinox.analysisServer.remote.message.AnalysisRequest;
 import equinox.analysisServer.remote.message.AnalysisServerStatisticsRequest;
+import equinox.analysisServer.remote.message.CompressedMessage;
+import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
 import equinox.analysisServer.remote.message.IsamiESARequest;
 import equinox.analysisServer.remote.message.RestartAnalysisServerRequest;
 import equinox.analysisServer.remote.message.SafeDAAIncrementRequest;
@@ -48,14 +52,24 @@ public class Lobby {
 	/** Server. */
 	private final AnalysisServer server_;
 
+	/** Disk space aware admission control for analysis requests. */
+	private final AdmissionControl admissionControl_;
+
+	/** Maximum inflated size of compressed client messages in bytes. */
+	private final int maxInflated_;
+
 	/**
 	 * Creates lobby.
 	 *
 	 * @param server
 	 *            Central server of the lobby.
+	 * @throws Exception
+	 *             If lobby cannot be created.
 	 */
-	public Lobby(AnalysisServer server) {
+	public Lobby(AnalysisServer server) throws Exception {
 		server_ = server;
+		admissionControl_ = new AdmissionControl(server_);
+		maxInflated_ = Integer.parseInt(server_.getProperties().getProperty("ns.maxInflated"));
 		server_.getLogger().info("Client lobby created.");
 	}
 
@@ -68,10 +82,20 @@ public class Lobby {
 		return server_;
 	}
 
+	/**
+	 * Returns the admission control of the lobby.
+	 *
+	 * @return The admission control of the lobby.
+	 */
+	public AdmissionControl getAdmissionControl() {
+		return admissionControl_;
+	}
+
 	/**
 	 * Stops this lobby.
 	 */
 	public void stop() {
+		admissionControl_.stop();
 		server_.getLogger().info("Client lobby stopped.");
 	}
 
@@ -87,8 +111,15 @@ public class Lobby {
 	 */
 	public void respond(AnalysisClient client, NetworkMessage message) throws Exception {
 
+		// compressed message (only accepted from clients which negotiated compression)
+		if (message instanceof CompressedMessage) {
+			if (!client.hasCapability(HandshakeWithAnalysisServer.COMPRESSION))
+				throw new Exception("Compressed message received from client '" + client.getAlias() + "' which did not negotiate compression.");
+			respond(client, Compression.decompress((CompressedMessage) message, maxInflated_));
+		}
+
 		// analysis request
-		if (message instanceof AnalysisRequest) {
+		else if (message instanceof AnalysisRequest) {
 			analysisRequest(client, (AnalysisRequest) message);
 		}
 
@@ -124,40 +155,93 @@ public class Lobby {
 	 */
 	private void analysisRequest(AnalysisClient client, AnalysisRequest message) throws Exception {
 
+		// server is stopping (reject with retry hint)
+		if (server_.isShutDown()) {
+			int retryAfter = Integer.parseInt(server_.getProperties().getProperty("stop.retryAfter"));
+			AnalysisFailed reply = new AnalysisFailed();
+			reply.setListenerHashCode(message.getListenerHashCode());
+			reply.setErrorCode(AnalysisFailed.SERVER_UNAVAILABLE);
+			reply.setRetryAfter(retryAfter);
+			reply.setExceptionMessage("Analysis server is stopping. Please retry in " + retryAfter + " seconds.");
+			client.sendMessage(reply);
+			return;
+		}
+
 		// increment analysis request count statistic
 		server_.incrementAnalysisRequests();
 
+		// create task
+		AnalysisTask task = createTask(client.getAlias(), message);
+
+		// journal and submit task for admission
+		if (task != null) {
+			server_.getRequestJournal().accepted(task);
+			admissionControl_.submit(task);
+		}
+	}
+
+	/**
+	 * Resumes given analysis request from the request journal. The results are sent to the client once it connects with the given alias.
+	 *
+	 * @param journalId
+	 *            Request journal ID.
+	 * @param alias
+	 *            Alias of the requesting client.
+	 * @param message
+	 *            Analysis request message.
+	 */
+	public void resume(long journalId, String alias, AnalysisRequest message) {
+
+		// create task
+		AnalysisTask task = createTask(alias, message);
+
+		// submit task for admission
+		if (task != null) {
+			task.setJournalId(journalId);
+			admissionControl_.submit(task);
+		}
+	}
+
+	/**
+	 * Creates analysis task for the given request.
+	 *
+	 * @param alias
+	 *            Alias of the requesting client.
+	 * @param message
+	 *            Analysis request message.
+	 * @return The analysis task, or null if the request is not supported.
+	 */
+	private AnalysisTask createTask(String alias, AnalysisRequest message) {
+
 		// initialize analysis task
 		AnalysisTask task = null;
 
 		// SAFE equivalent stress analysis
 		if (message instanceof SafeESARequest) {
-			task = new SafeESA(server_, client, (SafeESARequest) message);
+			task = new SafeESA(server_, alias, (SafeESARequest) message);
 		}
 
 		// SAFE flight damage contribution analysis
 		else if (message instanceof SafeFlightDCARequest) {
-			task = new SafeFlightDCA(server_, client, (SafeFlightDCARequest) message);
+			task = new SafeFlightDCA(server_, alias, (SafeFlightDCARequest) message);
 		}
 
 		// SAFE damage contribution analysis increment
 		else if (message instanceof SafeDCAIncrementRequest) {
-			task = new SafeDCAIncrement(server_, client, (SafeDCAIncrementRequest) message);
+			task = new SafeDCAIncrement(server_, alias, (SafeDCAIncrementRequest) message);
 		}
 
 		// SAFE damage angle analysis increment
 		else if (message instanceof SafeDAAIncrementRequest) {
-			task = new SafeDAAIncrement(server_, client, (SafeDAAIncrementRequest) message);
+			task = new SafeDAAIncrement(server_, alias, (SafeDAAIncrementRequest) message);
 		}
 
 		// ISAMI equivalent stress analysis
 		else if (message instanceof IsamiESARequest) {
-			task = new IsamiESA(server_, client, (IsamiESARequest) message);
+			task = new IsamiESA(server_, alias, (IsamiESARequest) message);
 		}
 
-		// submit task
-		if (task != null) {
-			server_.getThreadPool().submit(task);
-		}
+		// return task
+		return task;
 	}
 }
\ No newline at end of file
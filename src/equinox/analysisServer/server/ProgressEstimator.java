@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import equinox.analysisServer.task.AnalysisTask;
+
+/**
+ * Class for analysis progress estimator. Number of processed flights and solver run time of completed analyses are recorded per task type, normalized by the input archive size. These are used to estimate the total number of flights and the run time of running analyses.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 21:06:44
+ */
+public class ProgressEstimator {
+
+	/** Weight of the latest observation in averages. */
+	private static final double SMOOTHING = 0.2;
+
+	/** Flights per input archive byte, mapped to task types. */
+	private final ConcurrentHashMap<Class<?>, Double> flightRates_ = new ConcurrentHashMap<>();
+
+	/** Solver run time (in milliseconds) per input archive byte, mapped to task types. */
+	private final ConcurrentHashMap<Class<?>, Double> durationRates_ = new ConcurrentHashMap<>();
+
+	/** Average number of flights, mapped to task types. Used when the input archive size is not known. */
+	private final ConcurrentHashMap<Class<?>, Double> flights_ = new ConcurrentHashMap<>();
+
+	/** Average solver run time in milliseconds, mapped to task types. Used when the input archive size is not known. */
+	private final ConcurrentHashMap<Class<?>, Double> durations_ = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the number of processed flights and solver run time of the given successfully completed task.
+	 *
+	 * @param task
+	 *            Completed task.
+	 * @param flights
+	 *            Number of processed flights, or 0 if the solver output doesn't report flights.
+	 * @param duration
+	 *            Solver run time in milliseconds.
+	 */
+	public void record(AnalysisTask task, long flights, long duration) {
+		record(task, flights, flightRates_, flights_);
+		record(task, duration, durationRates_, durations_);
+	}
+
+	/**
+	 * Estimates the total number of flights of the given task.
+	 *
+	 * @param task
+	 *            Running task.
+	 * @return The estimated total number of flights, or -1 if there is no history.
+	 */
+	public long estimateFlights(AnalysisTask task) {
+		return estimate(task, flightRates_, flights_);
+	}
+
+	/**
+	 * Estimates the solver run time of the given task.
+	 *
+	 * @param task
+	 *            Running task.
+	 * @return The estimated solver run time in milliseconds, or -1 if there is no history.
+	 */
+	public long estimateDuration(AnalysisTask task) {
+		return estimate(task, durationRates_, durations_);
+	}
+
+	/**
+	 * Records given observation.
+	 *
+	 * @param task
+	 *            Completed task.
+	 * @param value
+	 *            Observed value.
+	 * @param rates
+	 *            Averages of value per input archive byte.
+	 * @param means
+	 *            Averages of value.
+	 */
+	private static void record(AnalysisTask task, long value, ConcurrentHashMap<Class<?>, Double> rates, ConcurrentHashMap<Class<?>, Double> means) {
+		if (value <= 0L)
+			return;
+		means.merge(task.getClass(), (double) value, ProgressEstimator::smooth);
+		long archiveSize = task.getInputArchiveSize();
+		if (archiveSize > 0L) {
+			rates.merge(task.getClass(), (double) value / archiveSize, ProgressEstimator::smooth);
+		}
+	}
+
+	/**
+	 * Estimates value for given task.
+	 *
+	 * @param task
+	 *            Running task.
+	 * @param rates
+	 *            Averages of value per input archive byte.
+	 * @param means
+	 *            Averages of value.
+	 * @return The estimated value, or -1 if there is no history.
+	 */
+	private static long estimate(AnalysisTask task, ConcurrentHashMap<Class<?>, Double> rates, ConcurrentHashMap<Class<?>, Double> means) {
+		long archiveSize = task.getInputArchiveSize();
+		Double rate = rates.get(task.getClass());
+		if (archiveSize > 0L && rate != null)
+			return Math.max(1L, (long) (rate * archiveSize));
+		Double mean = means.get(task.getClass());
+		return mean == null ? -1L : Math.max(1L, mean.longValue());
+	}
+
+	/**
+	 * Returns exponentially smoothed average of the given values.
+	 *
+	 * @param previous
+	 *            Previous average.
+	 * @param latest
+	 *            Latest observation.
+	 * @return The updated average.
+	 */
+	private static Double smooth(Double previous, Double latest) {
+		return (1.0 - SMOOTHING) * previous + SMOOTHING * latest;
+	}
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.remote.Registry;
+import equinox.analysisServer.remote.message.AnalysisRequest;
+import equinox.analysisServer.task.AnalysisTask;
+
+/**
+ * Class for request journal. Accepted analysis requests and the stages they reach are appended to a journal file by a single background thread, which syncs the file once per batch of records. Requests are removed from the journal when their tasks end. At startup, requests left in the journal by the previous server run (queued, or running when the server was stopped) are submitted again, so that clients don't have to resubmit them.
+ * <p>
+ * Each record is prefixed with its length and CRC32 checksum, so that a record torn by a crash is detected and ignored. The journal is compacted to its live requests at startup and whenever it exceeds its maximum size.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 19:04:27
+ */
+public class RequestJournal extends Thread {
+
+	/** Request stages. */
+	public static final byte QUEUED = 0, INPUTS_PREPARED = 1, SOLVER_STARTED = 2, RESULTS_SENT = 3;
+
+	/** Names of request stages. */
+	private static final String[] STAGES = { "queued", "inputs prepared", "solver started", "results sent" };
+
+	/** Record types. */
+	private static final byte ACCEPTED = 0, STAGE = 1, COMPLETED = 2;
+
+	/** Sentinel record signaling the journal thread to stop (compared by identity, never written). */
+	private static final byte[] STOP = new byte[0];
+
+	/** Serializers of the calling threads. */
+	private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> {
+		Kryo kryo = new Kryo();
+		Registry.register(kryo);
+		return kryo;
+	});
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Path to journal file. */
+	private final Path file_;
+
+	/** Queue of records waiting to be written. */
+	private final LinkedBlockingQueue<byte[]> queue_ = new LinkedBlockingQueue<>();
+
+	/** Live requests mapped to their journal IDs. */
+	private final ConcurrentHashMap<Long, Request> live_ = new ConcurrentHashMap<>();
+
+	/** Next journal ID. */
+	private final AtomicLong nextId_ = new AtomicLong();
+
+	/** Maximum size of journal file in bytes. */
+	private final long maxSize_;
+
+	/** True if the journal is enabled. */
+	private final boolean isEnabled_;
+
+	/** Journal file channel. Only accessed by the journal thread after recovery. */
+	private FileChannel channel_ = null;
+
+	/**
+	 * Creates request journal.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public RequestJournal(AnalysisServer server) {
+
+		// create thread
+		super("Equinox Request Journal");
+		setDaemon(true);
+
+		// set attributes
+		server_ = server;
+		isEnabled_ = server_.getProperties().getProperty("journal.enabled").equals("yes");
+		file_ = Paths.get(server_.getProperties().getProperty("journal.directory")).resolve("requests.journal");
+		maxSize_ = Long.parseLong(server_.getProperties().getProperty("journal.maxSize")) * 1024L * 1024L;
+
+		// log info
+		server_.getLogger().info("Request journal created.");
+	}
+
+	/**
+	 * Returns true if the journal is enabled.
+	 *
+	 * @return True if the journal is enabled.
+	 */
+	public boolean isEnabled() {
+		return isEnabled_;
+	}
+
+	/**
+	 * Reads the journal left by the previous server run, compacts it and submits the requests found in it to the lobby. This method must be called before the journal is started and before the server starts accepting requests.
+	 */
+	public void recover() {
+
+		// journal disabled
+		if (!isEnabled_)
+			return;
+
+		try {
+
+			// read journal
+			Files.createDirectories(file_.toAbsolutePath().getParent());
+			if (Files.exists(file_)) {
+				read();
+			}
+
+			// drop requests whose results were already sent (rerunning would send them again)
+			live_.entrySet().removeIf(entry -> {
+				if (entry.getValue().stage_ < RESULTS_SENT)
+					return false;
+				server_.getLogger().info("Analysis request of client '" + entry.getValue().alias_ + "' removed from request journal since its results were already sent.");
+				return true;
+			});
+
+			// compact journal
+			compact();
+
+			// submit requests in acceptance order
+			for (Map.Entry<Long, Request> entry : new TreeMap<>(live_).entrySet()) {
+				Request request = entry.getValue();
+				try {
+					AnalysisRequest message = (AnalysisRequest) KRYO.get().readClassAndObject(new Input(request.request_));
+					server_.getLogger().info("Analysis request of client '" + request.alias_ + "' resumed from request journal (last stage: " + STAGES[request.stage_] + ").");
+					server_.getLobby().resume(entry.getKey(), request.alias_, message);
+				}
+
+				// exception occurred during deserializing request
+				catch (Exception e) {
+					server_.getLogger().log(Level.WARNING, "Exception occurred during resuming analysis request of client '" + request.alias_ + "' from request journal.", e);
+					completed(entry.getKey());
+				}
+			}
+		}
+
+		// exception occurred during recovering journal
+		catch (Exception e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during recovering request journal.", e);
+		}
+	}
+
+	/**
+	 * Appends given accepted analysis task to the journal.
+	 *
+	 * @param task
+	 *            Accepted analysis task.
+	 */
+	public void accepted(AnalysisTask task) {
+
+		// journal disabled
+		if (!isEnabled_)
+			return;
+
+		try {
+
+			// serialize request
+			Output output = new Output(1024, -1);
+			KRYO.get().writeClassAndObject(output, task.getRequest());
+
+			// add to live requests
+			long id = nextId_.getAndIncrement();
+			Request request = new Request(task.getAlias(), output.toBytes());
+			live_.put(id, request);
+			task.setJournalId(id);
+
+			// queue record
+			queue_.add(record(ACCEPTED, id, request, QUEUED));
+		}
+
+		// exception occurred during journaling request
+		catch (Exception e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during journaling analysis request of client '" + task.getAlias() + "'.", e);
+		}
+	}
+
+	/**
+	 * Appends given stage of the request with the given journal ID to the journal.
+	 *
+	 * @param id
+	 *            Journal ID of the request, or -1 if the request is not journaled.
+	 * @param stage
+	 *            Reached stage.
+	 */
+	public void checkpoint(long id, byte stage) {
+
+		// not journaled
+		Request request = id < 0L ? null : live_.get(id);
+		if (request == null)
+			return;
+
+		// queue record
+		request.stage_ = stage;
+		queue_.add(record(STAGE, id, null, stage));
+	}
+
+	/**
+	 * Removes the request with the given journal ID from the journal.
+	 *
+	 * @param id
+	 *            Journal ID of the request, or -1 if the request is not journaled.
+	 */
+	public void completed(long id) {
+		if (id >= 0L && live_.remove(id) != null) {
+			queue_.add(record(COMPLETED, id, null, QUEUED));
+		}
+	}
+
+	/**
+	 * Stops the journal. Remaining records are written and synced before the journal terminates.
+	 */
+	public void stopJournal() {
+
+		// not started
+		if (!isAlive())
+			return;
+
+		// signal stop (interrupting would close the journal file before the remaining records are written)
+		queue_.add(STOP);
+
+		// wait for remaining records
+		try {
+			join(60000);
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// log info
+		long resumed = live_.values().stream().filter(request -> request.stage_ < RESULTS_SENT).count();
+		server_.getLogger().info("Request journal stopped. " + resumed + " analysis requests will be resumed after restart.");
+	}
+
+	@Override
+	public void run() {
+
+		// create batch
+		List<byte[]> batch = new ArrayList<>();
+
+		// loop till stopped
+		boolean isStopped = false;
+		while (!isStopped) {
+
+			try {
+
+				// wait for records
+				batch.add(queue_.take());
+				queue_.drainTo(batch);
+
+				// stop signaled (remaining records are written first)
+				isStopped = batch.remove(STOP);
+
+				// write batch
+				writeBatch(batch);
+				batch.clear();
+			}
+
+			// interrupted
+			catch (InterruptedException e) {
+				break;
+			}
+		}
+
+		// write remaining records
+		queue_.drainTo(batch);
+		batch.remove(STOP);
+		writeBatch(batch);
+
+		// close journal file
+		try {
+			if (channel_ != null) {
+				channel_.close();
+			}
+		}
+
+		// exception occurred during closing journal file
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during closing request journal.", e);
+		}
+	}
+
+	/**
+	 * Writes given batch of records to the journal file and syncs the file. The journal is compacted if it exceeds its maximum size.
+	 *
+	 * @param batch
+	 *            Records to write.
+	 */
+	private void writeBatch(List<byte[]> batch) {
+
+		// nothing to write or journal not recovered
+		if (batch.isEmpty() || channel_ == null)
+			return;
+
+		try {
+
+			// write and sync
+			for (byte[] record : batch) {
+				write(channel_, record);
+			}
+			channel_.force(false);
+
+			// compact
+			if (channel_.size() > maxSize_) {
+				compact();
+			}
+		}
+
+		// exception occurred during writing journal
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during writing request journal.", e);
+		}
+	}
+
+	/**
+	 * Reads the live requests from the journal file. Reading stops at the first torn or corrupt record.
+	 *
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private void read() throws IOException {
+
+		// loop over records
+		long maxId = -1L;
+		long fileSize = Files.size(file_);
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file_)))) {
+			while (true) {
+
+				// read record
+				byte[] payload;
+				try {
+					int length = in.readInt();
+					int checksum = in.readInt();
+					if (length < 9 || length > fileSize)
+						break;
+					payload = new byte[length];
+					in.readFully(payload);
+					crc.reset();
+					crc.update(payload);
+					if ((int) crc.getValue() != checksum) {
+						server_.getLogger().warning("Corrupt record found in request journal. Remaining records are ignored.");
+						break;
+					}
+				}
+
+				// end of journal (or torn record)
+				catch (EOFException e) {
+					break;
+				}
+
+				// apply record
+				DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+				byte type = record.readByte();
+				long id = record.readLong();
+				maxId = Math.max(maxId, id);
+				if (type == ACCEPTED) {
+					String alias = record.readUTF();
+					byte[] request = new byte[record.readInt()];
+					record.readFully(request);
+					live_.put(id, new Request(alias, request));
+				}
+				else if (type == STAGE) {
+					Request request = live_.get(id);
+					if (request != null) {
+						request.stage_ = record.readByte();
+					}
+				}
+				else if (type == COMPLETED) {
+					live_.remove(id);
+				}
+			}
+		}
+
+		// set next ID
+		nextId_.set(maxId + 1L);
+	}
+
+	/**
+	 * Rewrites the journal file with the live requests only and reopens it for appending.
+	 *
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private void compact() throws IOException {
+
+		// write live requests to temporary file
+		Path temp = file_.resolveSibling(file_.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (Map.Entry<Long, Request> entry : live_.entrySet()) {
+				Request request = entry.getValue();
+				write(out, record(ACCEPTED, entry.getKey(), request, QUEUED));
+				if (request.stage_ != QUEUED) {
+					write(out, record(STAGE, entry.getKey(), null, request.stage_));
+				}
+			}
+			out.force(true);
+		}
+
+		// replace journal file
+		if (channel_ != null) {
+			channel_.close();
+		}
+		Files.move(temp, file_, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		channel_ = FileChannel.open(file_, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Creates journal record.
+	 *
+	 * @param type
+	 *            Record type.
+	 * @param id
+	 *            Journal ID of the request.
+	 * @param request
+	 *            Accepted request (only for accepted records).
+	 * @param stage
+	 *            Reached stage (only for stage records).
+	 * @return The record, prefixed with its length and checksum.
+	 */
+	private static byte[] record(byte type, long id, Request request, byte stage) {
+
+		try {
+
+			// write payload
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0);
+			out.writeInt(0);
+			out.writeByte(type);
+			out.writeLong(id);
+			if (type == ACCEPTED) {
+				out.writeUTF(request.alias_);
+				out.writeInt(request.request_.length);
+				out.write(request.request_);
+			}
+			else if (type == STAGE) {
+				out.writeByte(stage);
+			}
+
+			// write length and checksum
+			byte[] record = bytes.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(record, 8, record.length - 8);
+			ByteBuffer.wrap(record).putInt(record.length - 8).putInt((int) crc.getValue());
+			return record;
+		}
+
+		// cannot happen for in-memory streams
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes given record to the given file channel.
+	 *
+	 * @param channel
+	 *            File channel.
+	 * @param record
+	 *            Record to write.
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private static void write(FileChannel channel, byte[] record) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Inner class for journaled request.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 19:16:40
+	 */
+	private static final class Request {
+
+		/** Alias of the requesting client. */
+		private final String alias_;
+
+		/** Serialized request message. */
+		private final byte[] request_;
+
+		/** Last reached stage. */
+		private volatile byte stage_ = QUEUED;
+
+		/**
+		 * Creates journaled request.
+		 *
+		 * @param alias
+		 *            Alias of the requesting client.
+		 * @param request
+		 *            Serialized request message.
+		 */
+		private Request(String alias, byte[] request) {
+			alias_ = alias;
+			request_ = request;
+		}
+	}
+}
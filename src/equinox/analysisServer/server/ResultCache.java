@@ -0,0 +1,561 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import equinox.analysisServer.remote.message.AnalysisComplete;
+import equinox.analysisServer.remote.message.AnalysisMessage;
+
+/**
+ * Class for persistent analysis result cache. Analysis complete messages are stored in the cache directory, keyed by a digest of the extracted input files and the solver relevant request parameters. Least recently used entries are evicted when the cache exceeds its size bound.
+ * <p>
+ * A cache entry is a sequence of analysis messages terminated by the analysis complete message. Results which are streamed to clients in chunks are appended to their entry while the analysis is running (see {@link Entry}), so that they are never held in memory as a whole.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 22:18:35
+ */
+public class ResultCache {
+
+	/** File extension of cache entries. */
+	private static final String EXTENSION = ".res";
+
+	/** Number of bytes in a megabyte. */
+	private static final long MB = 1024L * 1024L;
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Cache directory. */
+	private final Path directory_;
+
+	/** Maximum cache size in bytes. */
+	private final long maxSize_;
+
+	/** True if the cache is enabled. */
+	private final boolean isEnabled_;
+
+	/** Entries mapped to keys, in access order. */
+	private final LinkedHashMap<String, Item> entries_ = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Cache hit and miss counters. */
+	private final AtomicInteger hits_ = new AtomicInteger(), misses_ = new AtomicInteger();
+
+	/** Total size of cache entries in bytes. */
+	private long size_ = 0L;
+
+	/**
+	 * Creates result cache and loads existing entries from the cache directory.
+	 *
+	 * @param server
+	 *            Server instance.
+	 * @throws IOException
+	 *             If the cache directory cannot be created or listed.
+	 */
+	public ResultCache(AnalysisServer server) throws IOException {
+
+		// set attributes
+		server_ = server;
+		directory_ = Paths.get(server_.getProperties().getProperty("cache.directory"));
+		maxSize_ = Long.parseLong(server_.getProperties().getProperty("cache.maxSize")) * MB;
+		isEnabled_ = server_.getProperties().getProperty("cache.results").equals("yes");
+
+		// load existing entries
+		if (isEnabled_) {
+			Files.createDirectories(directory_);
+			loadEntries();
+			server_.getLogger().info("Result cache created with " + entries_.size() + " entries (" + size_ + " bytes).");
+		}
+	}
+
+	/**
+	 * Returns true if the cache is enabled.
+	 *
+	 * @return True if the cache is enabled.
+	 */
+	public boolean isEnabled() {
+		return isEnabled_;
+	}
+
+	/**
+	 * Creates cache key from the given input files and solver parameters.
+	 *
+	 * @param directory
+	 *            Working directory containing the input files.
+	 * @param inputFiles
+	 *            Extracted input files.
+	 * @param parameters
+	 *            Solver relevant request parameters.
+	 * @return Cache key.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static String createKey(Path directory, List<Path> inputFiles, String parameters) throws Exception {
+
+		// create digest
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+
+		// sort input files by path relative to working directory (files with the same name may exist in different sub directories)
+		Path root = directory.toAbsolutePath();
+		TreeMap<String, Path> sorted = new TreeMap<>();
+		for (Path file : inputFiles) {
+			StringBuilder name = new StringBuilder();
+			for (Path element : root.relativize(file.toAbsolutePath())) {
+				name.append(name.length() == 0 ? "" : "/").append(element.toString());
+			}
+			sorted.put(name.toString(), file);
+		}
+
+		// digest relative paths and contents
+		byte[] buffer = new byte[64 * 1024];
+		for (Map.Entry<String, Path> file : sorted.entrySet()) {
+			digest.update((byte) 0);
+			digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			try (InputStream in = Files.newInputStream(file.getValue())) {
+				int len;
+				while ((len = in.read(buffer)) > 0) {
+					digest.update(buffer, 0, len);
+				}
+			}
+		}
+
+		// convert to hex string
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns true if the cache contains an entry for the given key. Doesn't affect hit and miss counters.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @return True if the cache contains an entry for the given key.
+	 */
+	public synchronized boolean contains(String key) {
+		return isEnabled_ && entries_.containsKey(key);
+	}
+
+	/**
+	 * Returns the cached analysis result for the given key. Partial results preceding the analysis complete message in the entry are passed to the given consumer in their original order.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @param partialResults
+	 *            Consumer of partial results, or null if the entry is not expected to contain partial results.
+	 * @return The cached analysis result, or null if not found.
+	 * @throws Exception
+	 *             If the entry is found corrupt after some of its partial results were passed to the consumer.
+	 */
+	public AnalysisComplete get(String key, Consumer<AnalysisMessage> partialResults) throws Exception {
+
+		// cache disabled
+		if (!isEnabled_)
+			return null;
+
+		// not found
+		Item item;
+		synchronized (this) {
+			item = entries_.get(key);
+			if (item == null) {
+				misses_.incrementAndGet();
+				return null;
+			}
+		}
+
+		// read entry
+		Path file = directory_.resolve(key + EXTENSION);
+		boolean isConsumed = false;
+		try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(file))) {
+
+			// pass partial results to consumer
+			Object message;
+			while (!((message = in.readObject()) instanceof AnalysisComplete)) {
+				if (partialResults != null) {
+					partialResults.accept((AnalysisMessage) message);
+					isConsumed = true;
+				}
+			}
+
+			// return analysis result
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			hits_.incrementAndGet();
+			return (AnalysisComplete) message;
+		}
+
+		// exception occurred during reading entry (remove it, unless it was replaced or evicted meanwhile)
+		catch (Exception e) {
+			remove(key, item);
+			misses_.incrementAndGet();
+			if (isConsumed)
+				throw new Exception("Result cache entry '" + key + "' is corrupt. Entry removed.", e);
+			server_.getLogger().log(Level.WARNING, "Exception occurred during reading result cache entry '" + key + "'. Entry removed.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a new cache entry for the given key. Partial results can be appended to the entry and the entry is put to the cache once it is committed with the analysis complete message.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @return The new cache entry, or null if the cache is disabled or the entry cannot be created.
+	 */
+	public Entry create(String key) {
+
+		// cache disabled
+		if (!isEnabled_)
+			return null;
+
+		// create entry
+		try {
+			return new Entry(key);
+		}
+
+		// exception occurred during creating entry
+		catch (Exception e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during creating result cache entry '" + key + "'.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Puts given analysis result to the cache. Least recently used entries are evicted if the cache exceeds its size bound.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @param result
+	 *            Analysis result.
+	 */
+	public void put(String key, AnalysisComplete result) {
+		Entry entry = create(key);
+		if (entry != null) {
+			entry.commit(result);
+		}
+	}
+
+	/**
+	 * Returns number of cache hits and resets the value.
+	 *
+	 * @return Number of cache hits.
+	 */
+	public int getHits() {
+		return hits_.getAndSet(0);
+	}
+
+	/**
+	 * Returns number of cache misses and resets the value.
+	 *
+	 * @return Number of cache misses.
+	 */
+	public int getMisses() {
+		return misses_.getAndSet(0);
+	}
+
+	/**
+	 * Returns number of cache entries.
+	 *
+	 * @return Number of cache entries.
+	 */
+	public synchronized int getEntryCount() {
+		return entries_.size();
+	}
+
+	/**
+	 * Returns total size of cache entries in bytes.
+	 *
+	 * @return Total size of cache entries in bytes.
+	 */
+	public synchronized long getSize() {
+		return size_;
+	}
+
+	/**
+	 * Removes given entry, if it is still the current entry of the given key.
+	 *
+	 * @param key
+	 *            Cache key.
+	 * @param item
+	 *            Entry to remove.
+	 */
+	private synchronized void remove(String key, Item item) {
+		if (!entries_.remove(key, item))
+			return;
+		size_ -= item.size_;
+		try {
+			Files.deleteIfExists(directory_.resolve(key + EXTENSION));
+		}
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during deleting result cache entry '" + key + "'.", e);
+		}
+	}
+
+	/**
+	 * Evicts least recently used entries until the cache fits its size bound.
+	 *
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private void evict() throws IOException {
+		Iterator<Map.Entry<String, Item>> iterator = entries_.entrySet().iterator();
+		while (size_ > maxSize_ && iterator.hasNext()) {
+			Map.Entry<String, Item> entry = iterator.next();
+			Files.deleteIfExists(directory_.resolve(entry.getKey() + EXTENSION));
+			size_ -= entry.getValue().size_;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Loads existing entries from the cache directory, in the order of last access. Left over temporary files are deleted.
+	 *
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private void loadEntries() throws IOException {
+
+		// list entry files
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(directory_)) {
+			for (Path file : dirStream) {
+				String name = file.getFileName().toString();
+				if (name.endsWith(EXTENSION)) {
+					files.add(file);
+				}
+				else if (name.endsWith(".tmp")) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+
+		// sort by last access and add entries
+		files.sort((p1, p2) -> lastModified(p1).compareTo(lastModified(p2)));
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			long size = Files.size(file);
+			entries_.put(name.substring(0, name.length() - EXTENSION.length()), new Item(size));
+			size_ += size;
+		}
+
+		// evict if cache size is reduced
+		evict();
+	}
+
+	/**
+	 * Returns the last modified time of the given file.
+	 *
+	 * @param file
+	 *            File.
+	 * @return The last modified time, or epoch if it cannot be read.
+	 */
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		}
+		catch (IOException e) {
+			return FileTime.fromMillis(0L);
+		}
+	}
+
+	/**
+	 * Inner class for cache entry being written. Messages are written to a temporary file which is moved to the cache directory once the entry is committed. The entry is discarded if it exceeds the cache size bound or cannot be written.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 11:42:08
+	 */
+	public final class Entry implements AutoCloseable {
+
+		/** Cache key. */
+		private final String key_;
+
+		/** Temporary file. */
+		private final Path temp_;
+
+		/** Channel of the temporary file. */
+		private final FileChannel channel_;
+
+		/** Output stream. */
+		private final ObjectOutputStream out_;
+
+		/** True if the entry is closed. */
+		private boolean isClosed_ = false;
+
+		/**
+		 * Creates cache entry.
+		 *
+		 * @param key
+		 *            Cache key.
+		 * @throws IOException
+		 *             If the temporary file cannot be created.
+		 */
+		private Entry(String key) throws IOException {
+			key_ = key;
+			temp_ = Files.createTempFile(directory_, key, ".tmp");
+			channel_ = FileChannel.open(temp_, StandardOpenOption.WRITE);
+			out_ = new ObjectOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel_)));
+		}
+
+		/**
+		 * Appends given partial result to this entry.
+		 *
+		 * @param message
+		 *            Partial result.
+		 */
+		public void append(AnalysisMessage message) {
+
+			// closed
+			if (isClosed_)
+				return;
+
+			try {
+
+				// write message (reset, so that written messages are not referenced by the stream)
+				out_.writeObject(message);
+				out_.reset();
+
+				// entry larger than cache
+				out_.flush();
+				if (channel_.position() > maxSize_) {
+					close();
+				}
+			}
+
+			// exception occurred during writing entry
+			catch (Exception e) {
+				server_.getLogger().log(Level.WARNING, "Exception occurred during writing result cache entry '" + key_ + "'.", e);
+				close();
+			}
+		}
+
+		/**
+		 * Commits this entry with the given analysis result and puts it to the cache. Least recently used entries are evicted if the cache exceeds its size bound.
+		 *
+		 * @param result
+		 *            Analysis result.
+		 */
+		public void commit(AnalysisComplete result) {
+
+			// write analysis result
+			append(result);
+			if (isClosed_)
+				return;
+
+			try {
+
+				// close stream
+				isClosed_ = true;
+				out_.close();
+				long size = Files.size(temp_);
+
+				// move to entry file
+				synchronized (ResultCache.this) {
+					Files.move(temp_, directory_.resolve(key_ + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					Item previous = entries_.put(key_, new Item(size));
+					size_ += size - (previous == null ? 0L : previous.size_);
+					evict();
+				}
+			}
+
+			// exception occurred during writing entry
+			catch (Exception e) {
+				server_.getLogger().log(Level.WARNING, "Exception occurred during writing result cache entry '" + key_ + "'.", e);
+				discard();
+			}
+		}
+
+		/**
+		 * Discards this entry, unless it is already committed.
+		 */
+		@Override
+		public void close() {
+			if (!isClosed_) {
+				isClosed_ = true;
+				discard();
+			}
+		}
+
+		/**
+		 * Closes the stream and deletes the temporary file.
+		 */
+		private void discard() {
+			try {
+				out_.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+			try {
+				Files.deleteIfExists(temp_);
+			}
+			catch (IOException e) {
+				server_.getLogger().log(Level.WARNING, "Exception occurred during deleting result cache entry '" + key_ + "'.", e);
+			}
+		}
+	}
+
+	/**
+	 * Inner class for cache entry in the cache directory. Each written entry file has its own instance, so that an entry which is replaced while being read can be told apart from its replacement.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 16:05:37
+	 */
+	private static final class Item {
+
+		/** Size of entry file in bytes. */
+		private final long size_;
+
+		/**
+		 * Creates cache entry.
+		 *
+		 * @param size
+		 *            Size of entry file in bytes.
+		 */
+		private Item(long size) {
+			size_ = size;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import equinox.analysisServer.remote.message.AnalysisComplete;
+import equinox.analysisServer.remote.message.AnalysisFailed;
+import equinox.analysisServer.remote.message.AnalysisMessage;
+import equinox.analysisServer.remote.message.FlightDCAPartialResult;
+import equinox.serverUtilities.NetworkMessage;
+
+/**
+ * Class for result mailbox. Analysis results (complete and failed messages, and the partial results which are streamed before the complete message) which cannot be delivered because the requesting client is disconnected are kept in the mailbox of the client alias for a limited time. They are replayed once a client reconnects with the same alias.
+ * <p>
+ * Mailboxes are held in memory and bounded by their maximum number of messages. When a mailbox is full, all messages of the listener with the oldest message are evicted together, so that no result is replayed with some of its partial results missing.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 18:12:35
+ */
+public class ResultMailbox {
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Undelivered messages mapped to client aliases, in arrival order. */
+	private final ConcurrentHashMap<String, ArrayDeque<Mail>> mailboxes_ = new ConcurrentHashMap<>();
+
+	/** Time to live of messages in milliseconds. */
+	private final long ttl_;
+
+	/** Maximum number of messages per client alias. */
+	private final int maxMessages_;
+
+	/** True if the mailbox is enabled. */
+	private final boolean isEnabled_;
+
+	/**
+	 * Creates result mailbox.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public ResultMailbox(AnalysisServer server) {
+		server_ = server;
+		isEnabled_ = server.getProperties().getProperty("mailbox.enabled").equals("yes");
+		ttl_ = TimeUnit.MINUTES.toMillis(Long.parseLong(server.getProperties().getProperty("mailbox.ttl")));
+		maxMessages_ = Integer.parseInt(server.getProperties().getProperty("mailbox.maxMessages"));
+	}
+
+	/**
+	 * Returns true if the mailbox is enabled.
+	 *
+	 * @return True if the mailbox is enabled.
+	 */
+	public boolean isEnabled() {
+		return isEnabled_;
+	}
+
+	/**
+	 * Returns true if the given message is an analysis result which is kept in the mailbox if it cannot be delivered.
+	 *
+	 * @param message
+	 *            Message to check.
+	 * @return True if the given message is an analysis result.
+	 */
+	public static boolean isResult(NetworkMessage message) {
+		return message instanceof AnalysisComplete || message instanceof AnalysisFailed || message instanceof FlightDCAPartialResult;
+	}
+
+	/**
+	 * Puts given undelivered message to the mailbox of the given client alias.
+	 *
+	 * @param alias
+	 *            Client alias.
+	 * @param message
+	 *            Undelivered message.
+	 */
+	public void put(String alias, AnalysisMessage message) {
+
+		// mailbox disabled
+		if (!isEnabled_)
+			return;
+
+		// put message
+		mailboxes_.compute(alias, (k, mails) -> {
+			if (mails == null) {
+				mails = new ArrayDeque<>();
+			}
+			if (mails.size() >= maxMessages_) {
+				evict(alias, mails);
+			}
+			mails.add(new Mail(message, System.currentTimeMillis() + ttl_));
+			return mails;
+		});
+
+		// log info (partial results are logged with the complete message)
+		if (!(message instanceof FlightDCAPartialResult)) {
+			server_.getLogger().info("Undelivered " + message.getClass().getSimpleName() + " kept in mailbox of client '" + alias + "'.");
+		}
+	}
+
+	/**
+	 * Evicts all messages of the listener with the oldest message from the given mailbox.
+	 *
+	 * @param alias
+	 *            Client alias.
+	 * @param mails
+	 *            Full mailbox.
+	 */
+	private void evict(String alias, ArrayDeque<Mail> mails) {
+		int listener = mails.peek().message_.getListenerHashCode();
+		int size = mails.size();
+		mails.removeIf(mail -> mail.message_.getListenerHashCode() == listener);
+		server_.getLogger().warning("Mailbox of client '" + alias + "' is full. " + (size - mails.size()) + " undelivered messages of the oldest listener evicted.");
+	}
+
+	/**
+	 * Replays the unexpired messages in the mailbox of the given client alias with the given sender. Messages which cannot be queued are kept in the mailbox.
+	 *
+	 * @param alias
+	 *            Alias of the reconnected client.
+	 * @param sender
+	 *            Sender which queues the given message to the client and returns true if the message is queued.
+	 */
+	public void replay(String alias, Predicate<AnalysisMessage> sender) {
+
+		// mailbox disabled
+		if (!isEnabled_)
+			return;
+
+		// take messages
+		ArrayDeque<Mail> mails = mailboxes_.remove(alias);
+		if (mails == null)
+			return;
+
+		// send unexpired messages
+		int replayed = 0;
+		long now = System.currentTimeMillis();
+		List<AnalysisMessage> undelivered = new ArrayList<>();
+		for (Mail mail : mails) {
+			if (mail.expiry_ < now) {
+				continue;
+			}
+			if (sender.test(mail.message_)) {
+				replayed++;
+			}
+			else {
+				undelivered.add(mail.message_);
+			}
+		}
+
+		// keep undelivered messages
+		undelivered.forEach(message -> put(alias, message));
+
+		// log info
+		if (replayed > 0) {
+			server_.getLogger().info(replayed + " undelivered messages replayed to client '" + alias + "'.");
+		}
+	}
+
+	/**
+	 * Removes expired messages from all mailboxes.
+	 *
+	 * @return Number of removed messages.
+	 */
+	public int expire() {
+		int[] expired = { 0 };
+		long now = System.currentTimeMillis();
+		for (String alias : mailboxes_.keySet()) {
+			mailboxes_.computeIfPresent(alias, (k, mails) -> {
+				Iterator<Mail> i = mails.iterator();
+				while (i.hasNext()) {
+					if (i.next().expiry_ < now) {
+						i.remove();
+						expired[0]++;
+					}
+				}
+				return mails.isEmpty() ? null : mails;
+			});
+		}
+		return expired[0];
+	}
+
+	/**
+	 * Returns approximate number of undelivered messages in all mailboxes (including the expired ones which are not yet removed).
+	 *
+	 * @return Number of undelivered messages.
+	 */
+	public int getMessageCount() {
+		return mailboxes_.values().stream().mapToInt(ArrayDeque::size).sum();
+	}
+
+	/**
+	 * Inner class for undelivered message.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 18:20:51
+	 */
+	private static final class Mail {
+
+		/** Undelivered message. */
+		private final AnalysisMessage message_;
+
+		/** Expiry time in milliseconds. */
+		private final long expiry_;
+
+		/**
+		 * Creates undelivered message.
+		 *
+		 * @param message
+		 *            Undelivered message.
+		 * @param expiry
+		 *            Expiry time in milliseconds.
+		 */
+		private Mail(AnalysisMessage message, long expiry) {
+			message_ = message;
+			expiry_ = expiry;
+		}
+	}
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import equinox.analysisServer.task.IsamiESA;
+import equinox.analysisServer.task.SafeDAAIncrement;
+import equinox.analysisServer.task.SafeDCAIncrement;
+import equinox.analysisServer.task.SafeESA;
+import equinox.analysisServer.task.SafeFlightDCA;
+
+/**
+ * Class for scratch reaper. The reaper is a single low priority background thread which deletes the temporary files of the completed tasks in batches. At startup, it also sweeps the working directories and SAFE material files left behind by crashed or restarted servers.
+ *
+ * @author Murat Artim
+ * @date 18 Oct 2026
+ * @time 10:12:40
+ */
+public class ScratchReaper extends Thread {
+
+	/** Tasks producing working directories and material files. */
+	private static final Class<?>[] SCRATCH_OWNERS = { SafeESA.class, SafeFlightDCA.class, SafeDCAIncrement.class, SafeDAAIncrement.class, IsamiESA.class };
+
+	/** Name pattern of working directories (and material files) created by the tasks (see <code>Utility.createWorkingDirectory</code>). */
+	private static final Pattern SCRATCH_NAME = Pattern.compile("(" + Arrays.stream(SCRATCH_OWNERS).map(Class::getSimpleName).collect(Collectors.joining("|")) + ")_\\d{1,4}");
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Queue of deletion jobs waiting to be processed. */
+	private final LinkedBlockingQueue<Job> queue_ = new LinkedBlockingQueue<>();
+
+	/** Total number of bytes reclaimed. */
+	private final AtomicLong bytesReclaimed_ = new AtomicLong();
+
+	/** Maximum number of jobs to process in one batch. */
+	private final int batchSize_;
+
+	/** Pause between batches (in milliseconds). */
+	private final long pause_;
+
+	/** True if the reaper is stopped. */
+	private volatile boolean isStopped_ = false;
+
+	/**
+	 * Creates scratch reaper.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public ScratchReaper(AnalysisServer server) {
+
+		// create thread
+		super("Equinox Scratch Reaper");
+		setDaemon(true);
+		setPriority(Thread.MIN_PRIORITY);
+
+		// set attributes
+		server_ = server;
+		batchSize_ = Integer.parseInt(server_.getProperties().getProperty("temp.reaperBatch"));
+		pause_ = Long.parseLong(server_.getProperties().getProperty("temp.reaperPause"));
+
+		// log info
+		server_.getLogger().info("Scratch reaper created.");
+	}
+
+	/**
+	 * Schedules given temporary files for deletion.
+	 *
+	 * @param files
+	 *            Temporary files to delete.
+	 */
+	public void delete(List<Path> files) {
+		delete(files, null);
+	}
+
+	/**
+	 * Schedules given temporary files for deletion. The given listener is notified with the number of bytes reclaimed once the files are deleted.
+	 *
+	 * @param files
+	 *            Temporary files to delete.
+	 * @param listener
+	 *            Listener to notify with the reclaimed bytes, or null.
+	 */
+	public void delete(List<Path> files, LongConsumer listener) {
+		queue_.add(new Job(files, listener));
+	}
+
+	/**
+	 * Returns total number of bytes reclaimed since server start.
+	 *
+	 * @return Total number of bytes reclaimed.
+	 */
+	public long getBytesReclaimed() {
+		return bytesReclaimed_.get();
+	}
+
+	/**
+	 * Sweeps orphaned working directories and stale SAFE material files left behind by previous server runs. This method must be called before the server starts accepting requests, so that no live working directory of this server can match. Since other server instances may share the working and material directories, only the files which were last modified (including their contents) before this process started are considered orphans.
+	 */
+	public void sweepOrphans() {
+
+		// initialize list of orphans
+		List<Path> orphans = new ArrayList<>();
+
+		try {
+
+			// get process start time
+			long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+			// working directories
+			collectOrphans(Paths.get("").toAbsolutePath(), "", startTime, orphans);
+
+			// material files
+			Path materialDirectory = Paths.get(server_.getProperties().getProperty("safe.materialDirectory"));
+			if (Files.isDirectory(materialDirectory)) {
+				collectOrphans(materialDirectory, ".mat", startTime, orphans);
+			}
+		}
+
+		// exception occurred during listing orphans
+		catch (IOException e) {
+			server_.getLogger().log(Level.WARNING, "Exception occurred during sweeping orphaned temporary files.", e);
+		}
+
+		// log and schedule orphans for deletion
+		if (!orphans.isEmpty()) {
+			server_.getLogger().info(orphans.size() + " orphaned temporary files found. Scheduled for deletion.");
+			for (Path orphan : orphans) {
+				delete(Arrays.asList(orphan));
+			}
+		}
+	}
+
+	/**
+	 * Stops the reaper. Remaining temporary files are deleted before the reaper terminates.
+	 */
+	public void stopReaper() {
+
+		// set stopped
+		isStopped_ = true;
+		interrupt();
+
+		// wait for remaining deletions
+		try {
+			join(60000);
+		}
+
+		// interrupted
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// log info
+		server_.getLogger().info("Scratch reaper stopped. Total bytes reclaimed: " + bytesReclaimed_.get());
+	}
+
+	@Override
+	public void run() {
+
+		// create batch
+		List<Job> batch = new ArrayList<>(batchSize_);
+
+		// loop till stopped
+		while (!isStopped_) {
+
+			try {
+
+				// wait for files
+				batch.add(queue_.take());
+				queue_.drainTo(batch, batchSize_ - 1);
+
+				// delete batch
+				deleteBatch(batch);
+				batch.clear();
+
+				// yield disk to running analyses
+				if (pause_ > 0) {
+					Thread.sleep(pause_);
+				}
+			}
+
+			// interrupted
+			catch (InterruptedException e) {
+				break;
+			}
+		}
+
+		// delete remaining files
+		queue_.drainTo(batch);
+		deleteBatch(batch);
+	}
+
+	/**
+	 * Processes given batch of deletion jobs and logs the reclaimed bytes.
+	 *
+	 * @param batch
+	 *            Jobs to process.
+	 */
+	private void deleteBatch(List<Job> batch) {
+
+		// nothing to delete
+		if (batch.isEmpty())
+			return;
+
+		// loop over jobs
+		long reclaimed = 0L;
+		for (Job job : batch) {
+
+			// loop over files
+			long jobReclaimed = 0L;
+			for (Path file : job.files_) {
+				if (file == null) {
+					continue;
+				}
+				try {
+					jobReclaimed += deleteFile(file);
+				}
+
+				// exception occurred during deleting file
+				catch (IOException e) {
+					server_.getLogger().log(Level.WARNING, "Exception occurred during deleting temporary file '" + file + "'.", e);
+				}
+			}
+
+			// notify listener
+			if (job.listener_ != null) {
+				job.listener_.accept(jobReclaimed);
+			}
+			reclaimed += jobReclaimed;
+		}
+
+		// update and log reclaimed bytes
+		bytesReclaimed_.addAndGet(reclaimed);
+		server_.getLogger().fine("Reclaimed " + reclaimed + " bytes from " + batch.size() + " deletion jobs.");
+	}
+
+	/**
+	 * Deletes given file or directory recursively.
+	 *
+	 * @param file
+	 *            Path to file to delete.
+	 * @return Number of bytes reclaimed.
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private static long deleteFile(Path file) throws IOException {
+
+		// create counter
+		long[] reclaimed = { 0L };
+
+		// walk file tree
+		Files.walkFileTree(file, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+				Files.delete(path);
+				reclaimed[0] += attrs.size();
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path path, IOException e) throws IOException {
+				if (e instanceof NoSuchFileException)
+					return FileVisitResult.CONTINUE;
+				throw e;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+				if (e != null)
+					throw e;
+				try {
+					Files.delete(dir);
+				}
+
+				// directory not empty (files created meanwhile)
+				catch (DirectoryNotEmptyException e1) {
+					// ignore
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		// return reclaimed bytes
+		return reclaimed[0];
+	}
+
+	/**
+	 * Returns the latest modification time of the given file or directory, including all files under the directory.
+	 *
+	 * @param file
+	 *            File or directory.
+	 * @return The latest modification time in milliseconds.
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private static long getLastModified(Path file) throws IOException {
+
+		// create holder
+		long[] lastModified = { 0L };
+
+		// walk file tree
+		Files.walkFileTree(file, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				lastModified[0] = Math.max(lastModified[0], attrs.lastModifiedTime().toMillis());
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+				lastModified[0] = Math.max(lastModified[0], attrs.lastModifiedTime().toMillis());
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path path, IOException e) throws IOException {
+				if (e instanceof NoSuchFileException)
+					return FileVisitResult.CONTINUE;
+				throw e;
+			}
+		});
+
+		// return time
+		return lastModified[0];
+	}
+
+	/**
+	 * Collects orphaned temporary files from the given directory.
+	 *
+	 * @param directory
+	 *            Directory to search.
+	 * @param extension
+	 *            File extension of orphans (empty string for working directories).
+	 * @param startTime
+	 *            Start time of this process. Files modified after this time are considered live (they may belong to other server instances).
+	 * @param orphans
+	 *            List to add the orphans.
+	 * @throws IOException
+	 *             If exception occurs during process.
+	 */
+	private static void collectOrphans(Path directory, String extension, long startTime, List<Path> orphans) throws IOException {
+		try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(directory)) {
+			for (Path file : dirStream) {
+
+				// get file name
+				Path fileName = file.getFileName();
+				if (fileName == null) {
+					continue;
+				}
+
+				// check extension and type
+				String name = fileName.toString();
+				if (!name.endsWith(extension) || extension.isEmpty() != Files.isDirectory(file)) {
+					continue;
+				}
+
+				// check name pattern
+				if (!SCRATCH_NAME.matcher(name.substring(0, name.length() - extension.length())).matches()) {
+					continue;
+				}
+
+				// check modification time (may be in use by another server instance)
+				if (getLastModified(file) < startTime) {
+					orphans.add(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inner class for deletion job.
+	 *
+	 * @author Murat Artim
+	 * @date 18 Oct 2026
+	 * @time 14:05:12
+	 */
+	private static final class Job {
+
+		/** Files to delete. */
+		private final List<Path> files_;
+
+		/** Listener to notify with the reclaimed bytes, or null. */
+		private final LongConsumer listener_;
+
+		/**
+		 * Creates deletion job.
+		 *
+		 * @param files
+		 *            Files to delete.
+		 * @param listener
+		 *            Listener to notify with the reclaimed bytes, or null.
+		 */
+		private Job(List<Path> files, LongConsumer listener) {
+			files_ = files;
+			listener_ = listener;
+		}
+	}
+}
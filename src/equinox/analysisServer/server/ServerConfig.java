@@ -0,0 +1,270 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Level;
+
+/**
+ * Class for typed server configuration snapshot. The snapshot is immutable. It is created from the server properties at startup and replaced as a whole whenever the configuration file changes, so that hot paths read parsed values without locking and never see a half updated configuration.
+ * <p>
+ * Only the properties which are read frequently or can be changed while the server is running are part of the snapshot. Other properties are read from the server properties where they are used.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 20:31:14
+ */
+public final class ServerConfig {
+
+	/** Keys of the properties covered by the snapshot. Only these properties are reloaded while the server is running. */
+	public static final List<String> KEYS = Collections.unmodifiableList(Arrays.asList("log.level", "temp.delete", "analysis.slots", "ns.queueSize", "ns.queueLimit", "ns.connectionTimeout", "progress.period", "progress.minInterval", "stat.collect", "stat.log", "stat.period", "stat.expiry", "safe.flightChunkSize", "safe.logPollPeriod", "isami.pollPeriod"));
+
+	/** Log level. */
+	private final Level logLevel_;
+
+	/** True if temporary files are deleted after task completion. */
+	private final boolean deleteTemporaryFiles_;
+
+	/** Maximum number of concurrently running analyses (solver slots). */
+	private final int analysisSlots_;
+
+	/** Outbound queue size over which progress messages are dropped, queue limit over which the client is disconnected (in bytes). */
+	private final long queueSize_, queueLimit_;
+
+	/** Connection timeout in milliseconds. */
+	private final int connectionTimeout_;
+
+	/** Minimum interval between numeric progress messages, minimum interval between progress messages of a listener (in milliseconds). */
+	private final long progressPeriod_, progressInterval_;
+
+	/** True if server statistics are collected, true if statistics collection is logged. */
+	private final boolean collectStatistics_, logStatistics_;
+
+	/** Statistics collection period in seconds. */
+	private final long statisticsPeriod_;
+
+	/** Statistics expiry in days. */
+	private final int statisticsExpiry_;
+
+	/** Maximum number of flights per partial flight damage result. */
+	private final int flightChunkSize_;
+
+	/** Poll period of SAFE log files, poll period of ISAMI output (in milliseconds). */
+	private final long safeLogPollPeriod_, isamiPollPeriod_;
+
+	/**
+	 * Creates configuration snapshot from the given server properties.
+	 *
+	 * @param properties
+	 *            Server properties.
+	 * @throws IllegalArgumentException
+	 *             If a property is missing or invalid.
+	 */
+	public ServerConfig(Properties properties) throws IllegalArgumentException {
+		logLevel_ = Level.parse(get(properties, "log.level").toUpperCase(Locale.ROOT));
+		deleteTemporaryFiles_ = get(properties, "temp.delete").equals("yes");
+		analysisSlots_ = positive(properties, "analysis.slots");
+		queueSize_ = Long.parseLong(get(properties, "ns.queueSize"));
+		queueLimit_ = Long.parseLong(get(properties, "ns.queueLimit"));
+		connectionTimeout_ = Integer.parseInt(get(properties, "ns.connectionTimeout"));
+		progressPeriod_ = Long.parseLong(get(properties, "progress.period"));
+		progressInterval_ = Long.parseLong(get(properties, "progress.minInterval"));
+		collectStatistics_ = get(properties, "stat.collect").equals("yes");
+		logStatistics_ = get(properties, "stat.log").equals("yes");
+		statisticsPeriod_ = positive(properties, "stat.period");
+		statisticsExpiry_ = Integer.parseInt(get(properties, "stat.expiry"));
+		flightChunkSize_ = positive(properties, "safe.flightChunkSize");
+		safeLogPollPeriod_ = positive(properties, "safe.logPollPeriod");
+		isamiPollPeriod_ = positive(properties, "isami.pollPeriod");
+		if (queueLimit_ < queueSize_)
+			throw new IllegalArgumentException("Property 'ns.queueLimit' cannot be smaller than 'ns.queueSize'.");
+	}
+
+	/**
+	 * Returns log level.
+	 *
+	 * @return Log level.
+	 */
+	public Level getLogLevel() {
+		return logLevel_;
+	}
+
+	/**
+	 * Returns true if temporary files are deleted after task completion.
+	 *
+	 * @return True if temporary files are deleted after task completion.
+	 */
+	public boolean isDeleteTemporaryFiles() {
+		return deleteTemporaryFiles_;
+	}
+
+	/**
+	 * Returns the maximum number of concurrently running analyses.
+	 *
+	 * @return The maximum number of concurrently running analyses.
+	 */
+	public int getAnalysisSlots() {
+		return analysisSlots_;
+	}
+
+	/**
+	 * Returns the outbound queue size over which progress messages are dropped (in bytes).
+	 *
+	 * @return The outbound queue size.
+	 */
+	public long getQueueSize() {
+		return queueSize_;
+	}
+
+	/**
+	 * Returns the outbound queue limit over which the client is disconnected (in bytes).
+	 *
+	 * @return The outbound queue limit.
+	 */
+	public long getQueueLimit() {
+		return queueLimit_;
+	}
+
+	/**
+	 * Returns the connection timeout in milliseconds.
+	 *
+	 * @return The connection timeout in milliseconds.
+	 */
+	public int getConnectionTimeout() {
+		return connectionTimeout_;
+	}
+
+	/**
+	 * Returns the minimum interval between numeric progress messages in milliseconds.
+	 *
+	 * @return The minimum interval between numeric progress messages.
+	 */
+	public long getProgressPeriod() {
+		return progressPeriod_;
+	}
+
+	/**
+	 * Returns the minimum interval between progress messages of a listener in milliseconds.
+	 *
+	 * @return The minimum interval between progress messages of a listener.
+	 */
+	public long getProgressInterval() {
+		return progressInterval_;
+	}
+
+	/**
+	 * Returns true if server statistics are collected.
+	 *
+	 * @return True if server statistics are collected.
+	 */
+	public boolean isCollectStatistics() {
+		return collectStatistics_;
+	}
+
+	/**
+	 * Returns true if statistics collection is logged.
+	 *
+	 * @return True if statistics collection is logged.
+	 */
+	public boolean isLogStatistics() {
+		return logStatistics_;
+	}
+
+	/**
+	 * Returns statistics collection period in seconds.
+	 *
+	 * @return Statistics collection period in seconds.
+	 */
+	public long getStatisticsPeriod() {
+		return statisticsPeriod_;
+	}
+
+	/**
+	 * Returns statistics expiry in days.
+	 *
+	 * @return Statistics expiry in days.
+	 */
+	public int getStatisticsExpiry() {
+		return statisticsExpiry_;
+	}
+
+	/**
+	 * Returns the maximum number of flights per partial flight damage result.
+	 *
+	 * @return The maximum number of flights per partial flight damage result.
+	 */
+	public int getFlightChunkSize() {
+		return flightChunkSize_;
+	}
+
+	/**
+	 * Returns the poll period of SAFE log files in milliseconds.
+	 *
+	 * @return The poll period of SAFE log files.
+	 */
+	public long getSafeLogPollPeriod() {
+		return safeLogPollPeriod_;
+	}
+
+	/**
+	 * Returns the poll period of ISAMI output in milliseconds.
+	 *
+	 * @return The poll period of ISAMI output.
+	 */
+	public long getIsamiPollPeriod() {
+		return isamiPollPeriod_;
+	}
+
+	/**
+	 * Returns the value of the given property.
+	 *
+	 * @param properties
+	 *            Server properties.
+	 * @param key
+	 *            Property key.
+	 * @return The value of the property.
+	 * @throws IllegalArgumentException
+	 *             If the property is missing.
+	 */
+	private static String get(Properties properties, String key) throws IllegalArgumentException {
+		String value = properties.getProperty(key);
+		if (value == null)
+			throw new IllegalArgumentException("Property '" + key + "' is missing.");
+		return value.trim();
+	}
+
+	/**
+	 * Returns the value of the given positive integer property.
+	 *
+	 * @param properties
+	 *            Server properties.
+	 * @param key
+	 *            Property key.
+	 * @return The value of the property.
+	 * @throws IllegalArgumentException
+	 *             If the property is missing or not a positive integer.
+	 */
+	private static int positive(Properties properties, String key) throws IllegalArgumentException {
+		int value = Integer.parseInt(get(properties, key));
+		if (value <= 0)
+			throw new IllegalArgumentException("Property '" + key + "' must be positive.");
+		return value;
+	}
+}
@@ -15,15 +15,26 @@
  */
 package equinox.analysisServer.task;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.remote.message.AnalysisComplete;
 import equinox.analysisServer.remote.message.AnalysisFailed;
+import equinox.analysisServer.remote.message.AnalysisMessage;
 import equinox.analysisServer.remote.message.AnalysisProgress;
 import equinox.analysisServer.remote.message.AnalysisRequest;
+import equinox.analysisServer.remote.message.ESAComplete;
 import equinox.analysisServer.server.AnalysisServer;
+import equinox.analysisServer.server.RequestJournal;
+import equinox.analysisServer.server.ResultCache;
+import equinox.analysisServer.server.ResultMailbox;
 import equinox.analysisServer.utility.Utility;
 import equinox.serverUtilities.FilerConnection;
 
@@ -36,69 +47,218 @@ import equinox.serverUtilities.FilerConnection;
  */
 public abstract class AnalysisTask extends ServerTask {
 
-	/** Client who requests the analysis. */
-	protected final AnalysisClient client_;
+	/** Alias of the client who requests the analysis. Messages are sent to the client currently connected with this alias (see {@link #sendMessage(AnalysisMessage)}). */
+	protected final String alias_;
 
 	/** Analysis request message. */
 	protected final AnalysisRequest request_;
 
+	/** Size of input archive in bytes, or -1 if not known yet. */
+	private volatile long inputArchiveSize_ = -1L;
+
+	/** Lock for preparing input files. */
+	private final Object inputLock_ = new Object();
+
+	/** Working directory containing the prepared input files, or null if input files are not prepared yet. */
+	private volatile Path inputDirectory_ = null;
+
+	/** True if the task has started to use its input files. */
+	private volatile boolean isStarted_ = false;
+
+	/** Disk usage of prefetched input files in bytes. */
+	private volatile long prefetchedBytes_ = 0L;
+
+	/** Time spent for prefetching input files in milliseconds. */
+	private long prefetchTime_ = 0L;
+
+	/** Solver start time and last numeric progress time in milliseconds. */
+	private long solverStart_ = 0L, lastProgressTime_ = 0L;
+
+	/** Extracted input files, or null if input files are not prepared yet. */
+	private volatile List<Path> inputFiles_ = null;
+
+	/** Result cache key, or null if the result of this task is not cacheable. */
+	private String cacheKey_ = null;
+
+	/** Request journal ID, or -1 if the request is not journaled. */
+	private volatile long journalId_ = -1L;
+
+	/** True if the task is interrupted by server shutdown. */
+	private volatile boolean isInterrupted_ = false;
+
 	/**
 	 * Creates analysis task.
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Analysis request message.
 	 */
-	public AnalysisTask(AnalysisServer server, AnalysisClient client, AnalysisRequest request) {
+	public AnalysisTask(AnalysisServer server, String alias, AnalysisRequest request) {
 
 		// create server task
 		super(server);
 
 		// set attributes
-		client_ = client;
+		alias_ = alias;
 		request_ = request;
 	}
 
+	@Override
+	public void run() {
+
+		// run task
+		super.run();
+
+		// prefetched input files are deleted with the temporary files (even if they were never used, e.g. for cached results)
+		prefetchedBytes_ = 0L;
+
+		// remove from request journal (unless interrupted, so that it is resumed after restart)
+		if (!isInterrupted_) {
+			server_.getRequestJournal().completed(journalId_);
+		}
+	}
+
 	@Override
 	protected void failed(Exception e) {
 
+		// interrupted by server shutdown after drain (resumed from request journal after restart)
+		if (server_.isShutDown() && !server_.isDraining() && journalId_ >= 0L) {
+			isInterrupted_ = true;
+			server_.getLogger().info("Analysis of client '" + alias_ + "' interrupted by server shutdown. It will be resumed after restart.");
+			return;
+		}
+
 		try {
 
 			// increment failed analysis count for server statistics
 			server_.incrementFailedAnalyses();
 
 			// log exception
-			server_.getLogger().log(Level.WARNING, "Analysis failed for client '" + client_.getAlias() + "'.", e);
+			server_.getLogger().log(Level.WARNING, "Analysis failed for client '" + alias_ + "'.", e);
 
 			// no client
-			if (client_ == null)
+			if (alias_ == null)
 				return;
 
 			// upload produced output files (if any) to database and get download URL
 			String downloadUrl = uploadOutputFiles(false);
 
 			// send analysis failed message to client
+			boolean isInputFailure = isInputFailure(e);
 			AnalysisFailed message = new AnalysisFailed();
 			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setErrorCode(isInputFailure ? AnalysisFailed.INPUT_ERROR : AnalysisFailed.ANALYSIS_ERROR);
 			message.setException(e);
 			message.setDownloadUrl(downloadUrl);
-			client_.sendMessage(message);
+			sendMessage(message);
+
+			// remember deterministic failure
+			if (cacheKey_ != null && isInputFailure) {
+				server_.getFailureCache().put(cacheKey_, message);
+			}
 		}
 
 		// exception occurred during process
 		catch (Exception e1) {
 
 			// log exception
-			server_.getLogger().log(Level.WARNING, "Exception occurred during processing failed analysis for client '" + client_.getAlias() + "'.", e1);
+			server_.getLogger().log(Level.WARNING, "Exception occurred during processing failed analysis for client '" + alias_ + "'.", e1);
 
 			// send analysis failed message to client without download ID
 			AnalysisFailed message = new AnalysisFailed();
 			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setErrorCode(AnalysisFailed.INTERNAL_ERROR);
 			message.setException(e1);
-			client_.sendMessage(message);
+			sendMessage(message);
+		}
+	}
+
+	@Override
+	protected void temporaryFilesDeleted(long bytesReclaimed) {
+		server_.getLobby().getAdmissionControl().recordFootprint(this, bytesReclaimed);
+	}
+
+	/**
+	 * Returns the alias of the requesting client.
+	 *
+	 * @return The alias of the requesting client.
+	 */
+	public String getAlias() {
+		return alias_;
+	}
+
+	/**
+	 * Returns the analysis request message.
+	 *
+	 * @return The analysis request message.
+	 */
+	public AnalysisRequest getRequest() {
+		return request_;
+	}
+
+	/**
+	 * Sets the request journal ID of this task.
+	 *
+	 * @param journalId
+	 *            Request journal ID.
+	 */
+	public void setJournalId(long journalId) {
+		journalId_ = journalId;
+	}
+
+	/**
+	 * Queries the size of the input archive from the central database, if the archive is not downloaded yet.
+	 */
+	public void queryInputArchiveSize() {
+
+		// already known
+		if (inputArchiveSize_ >= 0L)
+			return;
+
+		// query input archive size
+		try (FilerConnection filer = getFilerConnection()) {
+			inputArchiveSize_ = filer.getSftpChannel().lstat(request_.getDownloadUrl()).getSize();
+		}
+
+		// exception occurred during process
+		catch (Exception e) {
+			server_.getLogger().log(Level.FINE, "Cannot query input archive size for client '" + alias_ + "'.", e);
+		}
+	}
+
+	/**
+	 * Returns the size of the input archive in bytes, or -1 if it is not known.
+	 *
+	 * @return The size of the input archive in bytes, or -1 if it is not known.
+	 */
+	public long getInputArchiveSize() {
+		return inputArchiveSize_;
+	}
+
+	/**
+	 * Sends given message to the client currently connected with the alias of the requesting client, so that results reach clients which reconnected while the analysis was running. If no such client is connected, analysis results (see <code>ResultMailbox.isResult</code>) are kept in the result mailbox to be replayed once the client reconnects. Other messages are discarded.
+	 *
+	 * @param message
+	 *            Message to send.
+	 */
+	protected void sendMessage(AnalysisMessage message) {
+
+		// results sent
+		if (message instanceof AnalysisComplete) {
+			server_.getRequestJournal().checkpoint(journalId_, RequestJournal.RESULTS_SENT);
+		}
+
+		// send to current client
+		AnalysisClient client = server_.getClient(alias_);
+		if (client != null && client.sendMessage(message))
+			return;
+
+		// keep results (including partial results) for reconnecting client
+		if (ResultMailbox.isResult(message)) {
+			server_.getResultMailbox().put(alias_, message);
 		}
 	}
 
@@ -112,26 +272,364 @@ public abstract class AnalysisTask extends ServerTask {
 		AnalysisProgress message = new AnalysisProgress();
 		message.setListenerHashCode(request_.getListenerHashCode());
 		message.setProgressMessage(progressMessage);
-		client_.sendMessage(message);
+		sendMessage(message);
+	}
+
+	/**
+	 * Sends numeric progress message to client.
+	 *
+	 * @param progressMessage
+	 *            Message text.
+	 * @param percent
+	 *            Percent complete, or -1 if not known.
+	 * @param remainingTime
+	 *            Estimated remaining time in milliseconds, or -1 if not known.
+	 */
+	protected void sendProgressMessage(String progressMessage, int percent, long remainingTime) {
+		AnalysisProgress message = new AnalysisProgress();
+		message.setListenerHashCode(request_.getListenerHashCode());
+		message.setProgressMessage(progressMessage);
+		message.setPercent(percent);
+		message.setRemainingTime(remainingTime);
+		sendMessage(message);
+	}
+
+	/**
+	 * Marks the start of the solver run. This must be called just before starting the solver process.
+	 */
+	protected void solverStarted() {
+		server_.getRequestJournal().checkpoint(journalId_, RequestJournal.SOLVER_STARTED);
+		solverStart_ = System.currentTimeMillis();
+		lastProgressTime_ = solverStart_;
+	}
+
+	/**
+	 * Sends solver progress to client. Progress is estimated from the number of processed flights (if reported by the solver) and the history of completed analyses of the same type. Messages are throttled to the progress period.
+	 *
+	 * @param flights
+	 *            Number of flights processed so far, or -1 if the solver output doesn't report flights.
+	 */
+	protected void reportSolverProgress(long flights) {
+
+		// throttle
+		long now = System.currentTimeMillis();
+		if (now - lastProgressTime_ < server_.getConfig().getProgressPeriod())
+			return;
+		lastProgressTime_ = now;
+
+		// estimate from processed flights
+		long elapsed = now - solverStart_;
+		double fraction = -1.0;
+		long remaining = -1L;
+		long totalFlights = server_.getProgressEstimator().estimateFlights(this);
+		if (flights > 0L && totalFlights > 0L) {
+			fraction = Math.min((double) flights / totalFlights, 0.99);
+			remaining = flights >= totalFlights ? -1L : elapsed * (totalFlights - flights) / flights;
+		}
+
+		// estimate from run time
+		else {
+			long duration = server_.getProgressEstimator().estimateDuration(this);
+			if (duration > 0L) {
+				fraction = Math.min((double) elapsed / duration, 0.99);
+				remaining = elapsed >= duration ? -1L : duration - elapsed;
+			}
+		}
+
+		// create message text
+		int percent = fraction < 0.0 ? -1 : (int) (fraction * 100.0);
+		String text = "Analysis running";
+		if (percent != -1) {
+			text += " " + percent + "%";
+		}
+		if (flights > 0L) {
+			text += " (" + flights + " flights processed)";
+		}
+		if (remaining != -1L) {
+			text += ", about " + Math.max(1L, TimeUnit.MILLISECONDS.toMinutes(remaining)) + " min remaining";
+		}
+
+		// send
+		sendProgressMessage(text + "...", percent, remaining);
+	}
+
+	/**
+	 * Records the run of the successfully completed solver to the progress history.
+	 *
+	 * @param flights
+	 *            Number of processed flights, or 0 if the solver output doesn't report flights.
+	 */
+	protected void solverCompleted(long flights) {
+		server_.getProgressEstimator().record(this, flights, System.currentTimeMillis() - solverStart_);
+	}
+
+	/**
+	 * Returns true if the given exception is known to be caused by the inputs of this task, so that repeating the analysis with the same inputs would fail the same way. Such failures are put to the failure cache. The default implementation returns false.
+	 *
+	 * @param e
+	 *            The exception that caused the task to fail.
+	 * @return True if the failure is caused by the inputs.
+	 */
+	protected boolean isInputFailure(Exception e) {
+		return false;
+	}
+
+	/**
+	 * Returns the solver relevant request parameters of this task, used as part of the result cache key. Tasks whose results can be cached must override this method. The default implementation returns null (not cacheable).
+	 *
+	 * @return The solver relevant request parameters, or null if the results of this task cannot be cached.
+	 */
+	protected String getSolverParameters() {
+		return null;
+	}
+
+	/**
+	 * Sends the analysis results from the result cache, if the same inputs and solver parameters were analyzed before. If the same inputs recently failed due to the inputs, the cached failure is sent instead (unless the request asks to ignore it). This must be called after the input files are prepared.
+	 *
+	 * @return True if the results or failure were sent from the cache (the solver must be skipped).
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	protected boolean sendCachedResults() throws Exception {
+
+		// not cacheable
+		String parameters = getSolverParameters();
+		if (!server_.getResultCache().isEnabled() && !server_.getFailureCache().isEnabled() || parameters == null || inputFiles_ == null)
+			return false;
+
+		// create cache key
+		parameters = getClass().getSimpleName() + ";upload=" + request_.getUploadOutputFiles() + ";" + parameters;
+		cacheKey_ = ResultCache.createKey(getWorkingDirectory(), inputFiles_, parameters);
+
+		// look up failure cache
+		if (request_.getIgnoreCachedFailure()) {
+			server_.getFailureCache().remove(cacheKey_);
+		}
+		else {
+			AnalysisFailed failure = server_.getFailureCache().get(cacheKey_, request_.getListenerHashCode());
+			if (failure != null) {
+				server_.getLogger().info("Analysis request of client '" + alias_ + "' failed from failure cache.");
+				server_.incrementFailedAnalyses();
+				sendMessage(failure);
+				return true;
+			}
+		}
+
+		// look up cache
+		if (server_.getResultCache().contains(cacheKey_)) {
+			sendProgressMessage("Analysis results found in result cache.");
+		}
+
+		// send cached partial results (if streamed)
+		AnalysisComplete result = server_.getResultCache().get(cacheKey_, message -> {
+			message.setListenerHashCode(request_.getListenerHashCode());
+			sendMessage(message);
+		});
+		if (result == null)
+			return false;
+
+		// send cached results
+		result.setListenerHashCode(request_.getListenerHashCode());
+		sendMessage(result);
+		return true;
+	}
+
+	/**
+	 * Sends given analysis complete message to client and puts it to the result cache.
+	 *
+	 * @param message
+	 *            Analysis complete message.
+	 */
+	protected void sendCompleteMessage(AnalysisComplete message) {
+		sendMessage(message);
+		cacheResult(message);
+	}
+
+	/**
+	 * Creates a result cache entry for results which are streamed to client in chunks.
+	 *
+	 * @return The result cache entry, or null if the result of this task is not cached.
+	 */
+	protected ResultCache.Entry createCacheEntry() {
+		if (!isCacheable())
+			return null;
+		return server_.getResultCache().create(cacheKey_);
+	}
+
+	/**
+	 * Returns true if the result of this task will be put to the result cache.
+	 *
+	 * @return True if the result of this task will be put to the result cache.
+	 */
+	protected boolean isCacheable() {
+		return cacheKey_ != null && server_.getResultCache().isEnabled();
+	}
+
+	/**
+	 * Puts given analysis result to the result cache. Results referring to uploaded output files are not cached, since the uploaded files belong to the requesting client.
+	 *
+	 * @param result
+	 *            Analysis result.
+	 */
+	protected void cacheResult(AnalysisComplete result) {
+		if (cacheKey_ == null)
+			return;
+		if (result instanceof ESAComplete && ((ESAComplete) result).getDownloadUrl() != null)
+			return;
+		server_.getResultCache().put(cacheKey_, result);
+	}
+
+	/**
+	 * Returns true if the input files of this task can still be prefetched.
+	 *
+	 * @return True if the input files of this task can still be prefetched.
+	 */
+	public boolean isPrefetchable() {
+		return !isStarted_ && inputDirectory_ == null;
+	}
+
+	/**
+	 * Returns the disk usage of the prefetched input files in bytes, or 0 if input files are not prefetched.
+	 *
+	 * @return The disk usage of the prefetched input files in bytes.
+	 */
+	public long getPrefetchedBytes() {
+		return prefetchedBytes_;
+	}
+
+	/**
+	 * Downloads and extracts the input files of this task ahead of its execution. Does nothing if the task has already started to prepare its input files.
+	 *
+	 * @param bandwidth
+	 *            Download bandwidth limit in bytes per second, or 0 for unlimited.
+	 * @return Disk usage of the prefetched input files in bytes, or 0 if nothing was prefetched.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public long prefetchInputFiles(long bandwidth) throws Exception {
+		synchronized (inputLock_) {
+
+			// task already started or inputs prepared
+			if (!isPrefetchable())
+				return 0L;
+
+			// prefetch input files
+			long start = System.currentTimeMillis();
+			sendProgressMessage("Prefetching input files...");
+			Path workingDirectory = downloadInputFiles(bandwidth);
+			prefetchTime_ = System.currentTimeMillis() - start;
+			inputDirectory_ = workingDirectory;
+
+			// return disk usage
+			return prefetchedBytes_;
+		}
+	}
+
+	/**
+	 * Downloads and extracts the input files of this task into its working directory, unless they are already prefetched. Waits if the input files are currently being prefetched.
+	 *
+	 * @return Working directory containing the input files.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	protected Path prepareInputFiles() throws Exception {
+
+		// set started (stops further prefetching)
+		long waitStart = System.currentTimeMillis();
+		isStarted_ = true;
+
+		// wait for prefetching (if any)
+		synchronized (inputLock_) {
+
+			// input files prefetched
+			if (inputDirectory_ != null) {
+				server_.recordPrefetchHit(Math.max(0L, prefetchTime_ - (System.currentTimeMillis() - waitStart)));
+				prefetchedBytes_ = 0L;
+				server_.getRequestJournal().checkpoint(journalId_, RequestJournal.INPUTS_PREPARED);
+				return inputDirectory_;
+			}
+
+			// download and extract input files
+			server_.recordPrefetchMiss();
+			inputDirectory_ = downloadInputFiles(0L);
+			prefetchedBytes_ = 0L;
+			server_.getRequestJournal().checkpoint(journalId_, RequestJournal.INPUTS_PREPARED);
+			return inputDirectory_;
+		}
+	}
+
+	/**
+	 * Downloads and extracts input files into the working directory.
+	 *
+	 * @param bandwidth
+	 *            Download bandwidth limit in bytes per second, or 0 for unlimited.
+	 * @return Working directory.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	private Path downloadInputFiles(long bandwidth) throws Exception {
+
+		// create working directory
+		sendProgressMessage("Creating working directory...");
+		Path workingDirectory = getWorkingDirectory();
+
+		// download input files from server
+		sendProgressMessage("Downloading input files from central database...");
+		Path inputArchive = downloadInputFile(bandwidth);
+
+		// extract input files from archive
+		sendProgressMessage("Extracting input files...");
+		ArrayList<Path> inputFiles = Utility.extractAllFilesFromZIP(inputArchive, workingDirectory);
+
+		// compute disk usage
+		long bytes = Files.size(inputArchive);
+		if (inputFiles != null) {
+			for (Path inputFile : inputFiles) {
+				bytes += Files.size(inputFile);
+			}
+		}
+		prefetchedBytes_ = bytes;
+		inputFiles_ = inputFiles == null ? new ArrayList<>() : inputFiles;
+
+		// return working directory
+		return workingDirectory;
 	}
 
 	/**
 	 * Downloads input file from central database.
 	 *
+	 * @param bandwidth
+	 *            Download bandwidth limit in bytes per second, or 0 for unlimited.
 	 * @return Input data file.
 	 * @throws Exception
 	 *             If exception occurs during process.
 	 */
-	protected Path downloadInputFile() throws Exception {
+	private Path downloadInputFile(long bandwidth) throws Exception {
 
 		// create path to input file
 		Path input = getWorkingDirectory().resolve("inputs.zip");
 
 		// download from server
 		try (FilerConnection filer = getFilerConnection()) {
-			filer.getSftpChannel().get(request_.getDownloadUrl(), input.toString());
+
+			// unlimited bandwidth
+			if (bandwidth <= 0L) {
+				filer.getSftpChannel().get(request_.getDownloadUrl(), input.toString());
+			}
+
+			// limited bandwidth (lifted once the task starts waiting for its inputs)
+			else {
+				try (InputStream in = filer.getSftpChannel().get(request_.getDownloadUrl())) {
+					try (OutputStream out = Files.newOutputStream(input)) {
+						Utility.copyThrottled(in, out, () -> isStarted_ ? 0L : bandwidth);
+					}
+				}
+			}
 		}
 
+		// set input archive size
+		inputArchiveSize_ = Files.size(input);
+
 		// return input
 		return input;
 	}
@@ -197,7 +695,7 @@ public abstract class AnalysisTask extends ServerTask {
 		try (FilerConnection filer = getFilerConnection()) {
 
 			// set path to destination file
-			downloadUrl = filer.getDirectoryPath(FilerConnection.EXCHANGE) + "/" + client_.getAlias() + "_" + this.getClass().getSimpleName() + "_" + System.currentTimeMillis() + ".zip";
+			downloadUrl = filer.getDirectoryPath(FilerConnection.EXCHANGE) + "/" + alias_ + "_" + this.getClass().getSimpleName() + "_" + System.currentTimeMillis() + ".zip";
 
 			// upload file to filer
 			filer.getSftpChannel().put(path.toString(), downloadUrl);
@@ -47,7 +47,7 @@ public final class CollectServerStatistics extends ServerTask {
 	protected void runTask() throws Exception {
 
 		// log info
-		if (server_.getProperties().getProperty("stat.log").equals("yes")) {
+		if (server_.getConfig().isLogStatistics()) {
 			server_.getLogger().info("Collecting server statistics...");
 		}
 
@@ -60,6 +60,9 @@ public final class CollectServerStatistics extends ServerTask {
 		stats.setFailedAnalyses(server_.getFailedAnalyses());
 		stats.setActiveThreads(((ThreadPoolExecutor) server_.getThreadPool()).getActiveCount());
 		stats.setThreadPoolSize(((ThreadPoolExecutor) server_.getThreadPool()).getPoolSize());
+		stats.setPrefetchHits(server_.getPrefetchHits());
+		stats.setPrefetchMisses(server_.getPrefetchMisses());
+		stats.setPrefetchSavedTime(server_.getPrefetchSavedTime());
 		server_.getStatistics().add(stats);
 	}
 
@@ -77,7 +80,7 @@ public final class CollectServerStatistics extends ServerTask {
 	private void removeExpiredStatistics() throws Exception {
 
 		// get statistics expiry days
-		int expiryDays = Integer.parseInt(server_.getProperties().getProperty("stat.expiry"));
+		int expiryDays = server_.getConfig().getStatisticsExpiry();
 
 		// compute epoch
 		Calendar calendar = Calendar.getInstance();
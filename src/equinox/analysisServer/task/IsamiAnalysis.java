@@ -24,8 +24,8 @@ import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
 
-import equinox.analysisServer.client.AnalysisClient;
 import equinox.analysisServer.remote.message.AnalysisRequest;
 import equinox.analysisServer.server.AnalysisServer;
 
@@ -47,13 +47,13 @@ public abstract class IsamiAnalysis extends AnalysisTask {
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Request message.
 	 */
-	public IsamiAnalysis(AnalysisServer server, AnalysisClient client, AnalysisRequest request) {
-		super(server, client, request);
+	public IsamiAnalysis(AnalysisServer server, String alias, AnalysisRequest request) {
+		super(server, alias, request);
 	}
 
 	/**
@@ -80,6 +80,7 @@ public abstract class IsamiAnalysis extends AnalysisTask {
 		File log = logFile_.toFile();
 		pb.redirectErrorStream(true);
 		pb.redirectOutput(Redirect.appendTo(log));
+		solverStarted();
 		Process process = pb.start();
 		assert pb.redirectInput() == Redirect.PIPE;
 		assert pb.redirectOutput().file() == log;
@@ -95,10 +96,13 @@ public abstract class IsamiAnalysis extends AnalysisTask {
 		// ISAMI analysis failed
 		if (!Files.exists(htmlFile_) || !Files.exists(csvFile_))
 			throw new Exception("ISAMI analysis failed! See '" + outFile_.getFileName().toString() + "' file for details.");
+
+		// record solver run
+		solverCompleted(0L);
 	}
 
 	/**
-	 * Waits for ISAMI analysis to complete.
+	 * Waits for ISAMI analysis to complete. Since the ISAMI output file is only created when the analysis completes, solver progress is estimated from the run time history.
 	 *
 	 * @throws Exception
 	 *             If exception occurs during process.
@@ -108,6 +112,9 @@ public abstract class IsamiAnalysis extends AnalysisTask {
 		// get working directory
 		Path workingDirectory = getWorkingDirectory();
 
+		// get poll period
+		long pollPeriod = server_.getConfig().getIsamiPollPeriod();
+
 		// create watch service
 		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
 
@@ -118,7 +125,13 @@ public abstract class IsamiAnalysis extends AnalysisTask {
 			while (true) {
 
 				// get a watch key
-				WatchKey key = watcher.take();
+				WatchKey key = watcher.poll(pollPeriod, TimeUnit.MILLISECONDS);
+
+				// no event (report progress)
+				if (key == null) {
+					reportSolverProgress(-1L);
+					continue;
+				}
 
 				// loop over events
 				for (WatchEvent<?> event : key.pollEvents()) {
@@ -24,12 +24,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 
-import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.parser.IsamiReport;
+import equinox.analysisServer.parser.IsamiReportParser;
+import equinox.analysisServer.remote.data.IsamiMaterial;
 import equinox.analysisServer.remote.message.FastESAComplete;
 import equinox.analysisServer.remote.message.FullESAComplete;
 import equinox.analysisServer.remote.message.IsamiESARequest;
 import equinox.analysisServer.server.AnalysisServer;
-import equinox.analysisServer.utility.Utility;
 
 /**
  * Class for ISAMI equivalent stress analysis task.
@@ -46,33 +47,28 @@ public final class IsamiESA extends IsamiAnalysis {
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Request message.
 	 */
-	public IsamiESA(AnalysisServer server, AnalysisClient client, IsamiESARequest request) {
-		super(server, client, request);
+	public IsamiESA(AnalysisServer server, String alias, IsamiESARequest request) {
+		super(server, alias, request);
 	}
 
 	@Override
 	protected void runTask() throws Exception {
 
 		// no client
-		if (client_ == null)
+		if (alias_ == null)
 			throw new Exception("No connected client found for analysis requester username.");
 
-		// create analysis directory
-		sendProgressMessage("Creating working directory...");
-		Path workingDirectory = getWorkingDirectory();
+		// prepare input files (if not already prefetched)
+		Path workingDirectory = prepareInputFiles();
 
-		// download input files from server
-		sendProgressMessage("Downloading input archive from database...");
-		Path inputArchive = downloadInputFile();
-
-		// extract input files from archive
-		sendProgressMessage("Extracting input SIGMA file...");
-		Utility.extractAllFilesFromZIP(inputArchive, workingDirectory);
+		// send results from cache (if analyzed before)
+		if (sendCachedResults())
+			return;
 
 		// input file doesn't exist
 		Path sigmaFile = workingDirectory.resolve("input.sigma");
@@ -91,39 +87,19 @@ public final class IsamiESA extends IsamiAnalysis {
 		sendProgressMessage("Analysis running...");
 		runAnalysis();
 
-		// extract results from CSV file
+		// extract results from report files
 		sendProgressMessage("Extracting analysis results...");
-		IsamiESARequest request = (IsamiESARequest) request_;
-		boolean isFast = request.getFastAnalysis();
-		int analysisType = request.getAnalysisType();
-
-		// fast analysis
-		if (isFast) {
-
-			// fatigue
-			if (analysisType == IsamiESARequest.FATIGUE) {
-				extractFastFatigueAnalysisResults();
-			}
-
-			// preffas
-			else if (analysisType == IsamiESARequest.PREFFAS || analysisType == IsamiESARequest.LINEAR) {
-				extractFastPropagationAnalysisResults();
-			}
-		}
-
-		// full analysis
-		else {
-
-			// fatigue
-			if (analysisType == IsamiESARequest.FATIGUE) {
-				extractFullFatigueAnalysisResults();
-			}
+		extractResults();
+	}
 
-			// preffas
-			else if (analysisType == IsamiESARequest.PREFFAS || analysisType == IsamiESARequest.LINEAR) {
-				extractFullPropagationAnalysisResults();
-			}
-		}
+	@Override
+	protected String getSolverParameters() {
+		IsamiESARequest request = (IsamiESARequest) request_;
+		IsamiMaterial material = request.getMaterial();
+		String parameters = "type=" + request.getAnalysisType() + ";fast=" + request.getFastAnalysis() + ";compression=" + request.getApplyCompression();
+		parameters += ";version=" + request.getIsamiVersion() + ";subVersion=" + request.getIsamiSubVersion();
+		parameters += ";material=" + material.getName() + "|" + material.getSpecification() + "|" + material.getOrientation() + "|" + material.getConfiguration();
+		return parameters;
 	}
 
 	@Override
@@ -161,245 +137,55 @@ public final class IsamiESA extends IsamiAnalysis {
 	}
 
 	/**
-	 * Extracts full fatigue analysis results from the output HTML file and sends analysis complete message back to the client.
+	 * Extracts analysis results from the output HTML file (full analysis) or CSV file (fast analysis) and sends analysis complete message back to the client.
 	 *
 	 * @throws Exception
 	 *             If exception occurs during process.
 	 */
-	private void extractFullFatigueAnalysisResults() throws Exception {
-
-		// initialize variables
-		int validity = -1, totCycles = -1;
-		double fatEq = -1.0, minStress = -1.0, maxStress = -1.0, rRatio = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(htmlFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String line = null;
-			end: while ((line = reader.readLine()) != null) {
-
-				// rainflow info
-				if (line.contains("Total Number of Flights:")) {
-
-					// parse validity
-					validity = Integer.parseInt(line.split(":")[1].trim().split("<BR>")[0].trim());
-
-					// parse rainflow information
-					while ((line = reader.readLine()) != null) {
-						if (line.contains("Values")) {
-							String[] split = line.split("</TD><TD>");
-							minStress = Double.parseDouble(split[0].trim().split("</TH><TD>")[1].trim());
-							maxStress = Double.parseDouble(split[1].trim());
-							rRatio = Double.parseDouble(split[4].trim());
-							totCycles = Integer.parseInt(split[5].trim().split("</TD></TR>")[0].trim());
-							break;
-						}
-					}
-				}
+	private void extractResults() throws Exception {
 
-				// equivalent stress
-				else if (line.contains("FATIGUE RESULTS:")) {
-					while ((line = reader.readLine()) != null) {
-						if (line.contains("EQUIVALENT STRESS")) {
-							fatEq = Double.parseDouble(line.split("</TH><TD ALIGN=CENTER>")[1].trim().split("</TD></TR>")[0].trim());
-							break end;
-						}
-					}
-				}
-			}
-		}
-
-		// no equivalent stress found
-		if (fatEq == -1.0)
-			throw new Exception("ISAMI analysis failed! Cannot find fatigue equivalent stress in output HTML file.");
-
-		// upload produced output file (if any) to database and get download URL
-		String downloadUrl = uploadOutputFiles(true);
+		// get analysis type
+		IsamiESARequest request = (IsamiESARequest) request_;
+		boolean isFast = request.getFastAnalysis();
+		boolean isFatigue = request.getAnalysisType() == IsamiESARequest.FATIGUE;
 
-		// create and send analysis complete message
-		FullESAComplete message = new FullESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(fatEq);
-		message.setMaximumStress(maxStress);
-		message.setMinimumStress(minStress);
-		message.setRRatio(rRatio);
-		message.setTotalNumberOfCycles(totCycles);
-		message.setValidity(validity);
-		client_.sendMessage(message);
-	}
+		// parse report file
+		IsamiReport report = isFast ? IsamiReportParser.parseCsv(csvFile_) : IsamiReportParser.parseHtml(htmlFile_);
 
-	/**
-	 * Extracts full propagation analysis results from the output HTML file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFullPropagationAnalysisResults() throws Exception {
-
-		// initialize variables
-		int validity = -1, totCycles = -1;
-		double eqStress = -1.0, minStress = -1.0, maxStress = -1.0, rRatio = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(htmlFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String line = null;
-			end: while ((line = reader.readLine()) != null) {
-
-				// rainflow info
-				if (line.contains("Total Number of Flights:")) {
-
-					// parse validity
-					validity = Integer.parseInt(line.split(":")[1].trim().split("<BR>")[0].trim());
-
-					// parse rainflow information
-					while ((line = reader.readLine()) != null) {
-						if (line.contains("Values")) {
-							String[] split = line.split("</TD><TD>");
-							minStress = Double.parseDouble(split[0].trim().split("</TH><TD>")[1].trim());
-							maxStress = Double.parseDouble(split[1].trim());
-							rRatio = Double.parseDouble(split[4].trim());
-							totCycles = Integer.parseInt(split[5].trim().split("</TD></TR>")[0].trim());
-							break;
-						}
-					}
-				}
-
-				// equivalent stress
-				else if (line.contains("MISSION PROPAGATION RESULTS")) {
-					while ((line = reader.readLine()) != null) {
-						if (line.contains("EQUIVALENT STRESS")) {
-							eqStress = Double.parseDouble(line.split("</TH><TD ALIGN=CENTER>")[1].trim().split("</TD></TR>")[0].trim());
-							break end;
-						}
-					}
-				}
-			}
-		}
+		// get equivalent stress
+		double eqStress = isFatigue ? report.getFatigueEquivalentStress() : report.getPropagationEquivalentStress();
 
 		// no equivalent stress found
-		if (eqStress == -1.0)
-			throw new Exception("ISAMI analysis failed! Cannot find propagation equivalent stress in output HTML file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FullESAComplete message = new FullESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(eqStress);
-		message.setMaximumStress(maxStress);
-		message.setMinimumStress(minStress);
-		message.setRRatio(rRatio);
-		message.setTotalNumberOfCycles(totCycles);
-		message.setValidity(validity);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts fast fatigue analysis results from the output CSV file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFastFatigueAnalysisResults() throws Exception {
-
-		// initialize variables
-		double eqStress = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(csvFile_, Charset.defaultCharset())) {
-
-			// read till fatigue results found
-			String[] split;
-			String line = null;
-			found: while ((line = reader.readLine()) != null) {
-
-				// fatigue results found
-				if (line.startsWith("FATIGUE INITIATION RESULTS")) {
-
-					// read till equivalent stress found
-					while ((line = reader.readLine()) != null) {
-
-						// equivalent stress found
-						if (line.contains("Equivalent stress")) {
-							split = line.trim().split(";");
-							eqStress = Double.parseDouble(split[1].trim());
-							break found;
-						}
-					}
-				}
-			}
+		if (eqStress == -1.0) {
+			String message = "ISAMI analysis failed! Cannot find " + (isFatigue ? "fatigue" : "propagation") + " equivalent stress in output ";
+			throw new Exception(message + (isFast ? "csv" : "HTML") + " file.");
 		}
 
-		// no equivalent stress found
-		if (eqStress == -1.0)
-			throw new Exception("ISAMI analysis failed! Cannot find fatigue equivalent stress in output csv file.");
-
 		// upload produced output file (if any) to database and get download URL
 		String downloadUrl = uploadOutputFiles(true);
 
-		// create and send analysis complete message
-		FastESAComplete message = new FastESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(eqStress);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts fast propagation analysis results from the output CSV file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFastPropagationAnalysisResults() throws Exception {
-
-		// initialize variables
-		double eqStress = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(csvFile_, Charset.defaultCharset())) {
-
-			// read till fatigue results found
-			String[] split;
-			String line = null;
-			found: while ((line = reader.readLine()) != null) {
-
-				// fatigue results found
-				if (line.startsWith("PROPAGATION RESULTS")) {
-
-					// read till equivalent stress found
-					while ((line = reader.readLine()) != null) {
-
-						// equivalent stress found
-						if (line.contains("Equivalent stress")) {
-							split = line.trim().split(";");
-							eqStress = Double.parseDouble(split[1].trim());
-							break found;
-						}
-					}
-				}
-			}
+		// fast analysis
+		if (isFast) {
+			FastESAComplete message = new FastESAComplete();
+			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setDownloadUrl(downloadUrl);
+			message.setEquivalentStress(eqStress);
+			sendCompleteMessage(message);
 		}
 
-		// no equivalent stress found
-		if (eqStress == -1.0)
-			throw new Exception("ISAMI analysis failed! Cannot find propagation equivalent stress in output csv file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FastESAComplete message = new FastESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(eqStress);
-		client_.sendMessage(message);
+		// full analysis
+		else {
+			FullESAComplete message = new FullESAComplete();
+			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setDownloadUrl(downloadUrl);
+			message.setEquivalentStress(eqStress);
+			message.setMaximumStress(report.getMaximumStress());
+			message.setMinimumStress(report.getMinimumStress());
+			message.setRRatio(report.getRRatio());
+			message.setTotalNumberOfCycles(report.getTotalCycles());
+			message.setValidity(report.getValidity());
+			sendCompleteMessage(message);
+		}
 	}
 
 	/**
@@ -18,9 +18,9 @@ package equinox.analysisServer.task;
 import java.util.logging.Level;
 
 import equinox.analysisServer.client.AnalysisClient;
-import equinox.analysisServer.client.ClientConnection;
 import equinox.analysisServer.remote.message.HandshakeWithAnalysisServer;
 import equinox.analysisServer.server.AnalysisServer;
+import equinox.analysisServer.transport.TransportConnection;
 
 /**
  * Class for process handshake task.
@@ -32,7 +32,7 @@ import equinox.analysisServer.server.AnalysisServer;
 public class ProcessHandshake extends ServerTask {
 
 	/** Client connection. */
-	private final ClientConnection clientConnection_;
+	private final TransportConnection clientConnection_;
 
 	/** Handshake message. */
 	private final HandshakeWithAnalysisServer message_;
@@ -47,7 +47,7 @@ public class ProcessHandshake extends ServerTask {
 	 * @param server
 	 *            Server instance.
 	 */
-	public ProcessHandshake(ClientConnection clientConnection, HandshakeWithAnalysisServer message, AnalysisServer server) {
+	public ProcessHandshake(TransportConnection clientConnection, HandshakeWithAnalysisServer message, AnalysisServer server) {
 		super(server);
 		clientConnection_ = clientConnection;
 		message_ = message;
@@ -56,20 +56,60 @@ public class ProcessHandshake extends ServerTask {
 	@Override
 	protected void runTask() throws Exception {
 
+		// protocol version mismatch (wire format and result messages depend on the protocol version)
+		if (message_.getProtocolVersion() != HandshakeWithAnalysisServer.PROTOCOL_VERSION) {
+			server_.getLogger().warning("Client '" + message_.getAlias() + "' uses unsupported protocol version " + message_.getProtocolVersion() + ". Handshake rejected.");
+			message_.setReply(false);
+			message_.setProtocolVersion(HandshakeWithAnalysisServer.PROTOCOL_VERSION);
+			message_.setCapabilities(0);
+			clientConnection_.sendTCP(message_);
+			return;
+		}
+
 		// create client
 		AnalysisClient client = new AnalysisClient(clientConnection_, message_.getAlias(), server_.getLobby());
 
-		// add client to server
-		server_.addClient(client);
+		// add client to server (alias claimed by another connection in the meantime)
+		if (!server_.addClient(client)) {
+			client.connectionClosed();
+			message_.setReply(false);
+			clientConnection_.sendTCP(message_);
+			return;
+		}
+
+		// attach client to connection (remove client if the connection was closed before it was attached)
+		clientConnection_.setClient(client);
+		if (!clientConnection_.isConnected()) {
+			client.connectionClosed();
+			server_.removeClient(client);
+			return;
+		}
 
 		// set timeout for connection.
-		clientConnection_.setTimeout(Integer.parseInt(server_.getProperties().getProperty("ns.connectionTimeout")));
+		clientConnection_.setTimeout(server_.getConfig().getConnectionTimeout());
+
+		// check UDP channel
+		boolean hasUdp = clientConnection_.getRemoteAddressUDP() != null;
+
+		// negotiate capabilities
+		int capabilities = 0;
+		if (server_.getProperties().getProperty("ns.compression").equals("yes")) {
+			capabilities |= HandshakeWithAnalysisServer.COMPRESSION;
+		}
+		if (server_.getProperties().getProperty("ns.batching").equals("yes")) {
+			capabilities |= HandshakeWithAnalysisServer.BATCHING;
+		}
+		capabilities &= message_.getCapabilities();
+		client.setCapabilities(capabilities);
+		server_.getLogger().info("Client '" + client.getAlias() + "' connected with capabilities " + capabilities + (hasUdp ? " over TCP and UDP." : " over TCP."));
 
 		// set message parameters
 		message_.setReply(true);
+		message_.setProtocolVersion(HandshakeWithAnalysisServer.PROTOCOL_VERSION);
+		message_.setCapabilities(capabilities);
 
-		// respond to client
-		client.sendMessage(message_);
+		// respond to client and replay results of the analyses completed while the client was disconnected (messages sent to the client in the meantime are held until then)
+		client.completeHandshake(message_);
 	}
 
 	@Override
@@ -84,7 +84,7 @@ public class RestartServer extends ServerTask {
 			server_.getLogger().info("Restarting analysis server on request from '" + client.getAlias() + "'.");
 
 			// restart server
-			server_.stopServer(true, true);
+			server_.stopServer(true, true, status -> sendProgress(client, request.getListenerHashCode(), status));
 		}
 	}
 
@@ -25,8 +25,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.parser.SafeLogTailer;
 import equinox.analysisServer.remote.message.AnalysisRequest;
 import equinox.analysisServer.server.AnalysisServer;
 
@@ -43,18 +44,21 @@ public abstract class SafeAnalysis extends AnalysisTask {
 	/** File paths. */
 	protected Path tempMaterialFile_, logFile_, erreursFile_, dossierFile_;
 
+	/** Number of flights processed by the solver. */
+	private int solverFlights_ = 0;
+
 	/**
 	 * Creates SAFE analysis task.
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Analysis request message.
 	 */
-	public SafeAnalysis(AnalysisServer server, AnalysisClient client, AnalysisRequest request) {
-		super(server, client, request);
+	public SafeAnalysis(AnalysisServer server, String alias, AnalysisRequest request) {
+		super(server, alias, request);
 	}
 
 	@Override
@@ -98,11 +102,23 @@ public abstract class SafeAnalysis extends AnalysisTask {
 		File log = logFile_.toFile();
 		pb.redirectErrorStream(true);
 		pb.redirectOutput(Redirect.appendTo(log));
+		solverStarted();
 		Process process = pb.start();
 		assert pb.redirectInput() == Redirect.PIPE;
 		assert pb.redirectOutput().file() == log;
 		assert process.getInputStream().read() == -1;
 
+		// notify running analysis
+		try {
+			analysisRunning(process);
+		}
+
+		// exception occurred (terminate process)
+		catch (Exception e) {
+			process.destroy();
+			throw e;
+		}
+
 		// perl script failed
 		if (process.waitFor() != 0)
 			throw new Exception("SAFE analysis failed! See 'output.log' file for details.");
@@ -110,6 +126,52 @@ public abstract class SafeAnalysis extends AnalysisTask {
 		// SAFE analysis failed
 		if (!Files.exists(dossierFile_) || Files.exists(erreursFile_))
 			throw new Exception("SAFE analysis failed! See 'output.erreurs' file for details.");
+
+		// record solver run
+		solverCompleted(solverFlights_);
+	}
+
+	@Override
+	protected boolean isInputFailure(Exception e) {
+		return erreursFile_ != null && Files.exists(erreursFile_);
+	}
+
+	/**
+	 * Called after the SAFE process is started and before waiting for it to end. Subclasses can override this method to process the outputs while the solver is running. The default implementation reports solver progress by counting the flight results in the output log file.
+	 *
+	 * @param process
+	 *            SAFE process.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	protected void analysisRunning(Process process) throws Exception {
+		try (SafeLogTailer tailer = new SafeLogTailer(logFile_)) {
+			waitForSolver(process, tailer);
+		}
+	}
+
+	/**
+	 * Polls the given output log tailer and reports solver progress until the SAFE process ends.
+	 *
+	 * @param process
+	 *            SAFE process.
+	 * @param tailer
+	 *            Output log tailer.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	protected void waitForSolver(Process process, SafeLogTailer tailer) throws Exception {
+
+		// poll log file while the solver is running
+		long pollPeriod = server_.getConfig().getSafeLogPollPeriod();
+		while (!process.waitFor(pollPeriod, TimeUnit.MILLISECONDS)) {
+			tailer.poll();
+			reportSolverProgress(tailer.getFlightsProcessed());
+		}
+
+		// get number of processed flights
+		tailer.poll();
+		solverFlights_ = tailer.getFlightsProcessed();
 	}
 
 	/**
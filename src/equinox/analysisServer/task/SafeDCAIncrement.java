@@ -15,17 +15,16 @@
  */
 package equinox.analysisServer.task;
 
-import java.io.BufferedReader;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 
-import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.parser.SafeDossier;
+import equinox.analysisServer.parser.SafeDossierParser;
+import equinox.analysisServer.parser.SafeLogScanner;
 import equinox.analysisServer.remote.message.DCAIncrementComplete;
 import equinox.analysisServer.remote.message.SafeDCAIncrementRequest;
 import equinox.analysisServer.server.AnalysisServer;
-import equinox.analysisServer.utility.Utility;
 
 /**
  * Class for SAFE damage contribution analysis increment task.
@@ -42,33 +41,28 @@ public final class SafeDCAIncrement extends SafeAnalysis {
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Request message.
 	 */
-	public SafeDCAIncrement(AnalysisServer server, AnalysisClient client, SafeDCAIncrementRequest request) {
-		super(server, client, request);
+	public SafeDCAIncrement(AnalysisServer server, String alias, SafeDCAIncrementRequest request) {
+		super(server, alias, request);
 	}
 
 	@Override
 	protected void runTask() throws Exception {
 
 		// no client
-		if (client_ == null)
+		if (alias_ == null)
 			throw new Exception("No connected client found for analysis requester username.");
 
-		// create analysis directory
-		sendProgressMessage("Creating analysis directory...");
-		Path analysisDirectory = getWorkingDirectory();
+		// prepare input files (if not already prefetched)
+		Path analysisDirectory = prepareInputFiles();
 
-		// download input files from server
-		sendProgressMessage("Downloading input files from central database...");
-		Path inputArchive = downloadInputFile();
-
-		// extract input files from archive
-		sendProgressMessage("Extracting input files...");
-		Utility.extractAllFilesFromZIP(inputArchive, analysisDirectory);
+		// send results from cache (if analyzed before)
+		if (sendCachedResults())
+			return;
 
 		// input files don't exist
 		Path materialFile = analysisDirectory.resolve("material.mat");
@@ -97,6 +91,11 @@ public final class SafeDCAIncrement extends SafeAnalysis {
 		extractResults();
 	}
 
+	@Override
+	protected String getSolverParameters() {
+		return "";
+	}
+
 	@Override
 	protected ArrayList<Path> getOutputFiles(boolean isSucceeded) throws Exception {
 		return null;
@@ -111,52 +110,14 @@ public final class SafeDCAIncrement extends SafeAnalysis {
 	private void extractResults() throws Exception {
 
 		// extract total damage
-		double damage = 0.0;
-		try (BufferedReader reader = Files.newBufferedReader(logFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// others
-				if (line.startsWith(" RESULTS FLIGHT NUMBER")) {
-
-					// get damage
-					for (int i = 0; i < 15; i++) {
-						line = reader.readLine();
-					}
-					if (line == null) {
-						continue;
-					}
-					split = line.split(":");
-					damage += Double.parseDouble(split[5].trim());
-				}
-			}
-		}
+		double damage = SafeLogScanner.scanFlightDamages(logFile_).getTotalDamage();
 
 		// no damage found
 		if (damage == 0.0)
 			throw new Exception("SAFE analysis failed! Cannot extract fatigue damages output log file.");
 
-		// create file reader
-		double fatEq = -1.0;
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-				if (line.startsWith(" :  (Rain-Flow)")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						fatEq = Double.parseDouble(split[3].trim());
-					}
-				}
-			}
-		}
+		// parse dossier file
+		double fatEq = SafeDossierParser.parse(dossierFile_, false).getRainFlowStress(SafeDossier.FATIGUE);
 
 		// no equivalent stress found
 		if (fatEq == -1.0)
@@ -167,6 +128,6 @@ public final class SafeDCAIncrement extends SafeAnalysis {
 		message.setListenerHashCode(request_.getListenerHashCode());
 		message.setDamage(damage);
 		message.setStress(fatEq);
-		client_.sendMessage(message);
+		sendCompleteMessage(message);
 	}
 }
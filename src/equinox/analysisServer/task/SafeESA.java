@@ -21,12 +21,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 
-import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.parser.SafeDossier;
+import equinox.analysisServer.parser.SafeDossierParser;
 import equinox.analysisServer.remote.message.FastESAComplete;
 import equinox.analysisServer.remote.message.FullESAComplete;
 import equinox.analysisServer.remote.message.SafeESARequest;
 import equinox.analysisServer.server.AnalysisServer;
-import equinox.analysisServer.utility.Utility;
 
 /**
  * Class for SAFE equivalent stress analysis task.
@@ -46,33 +46,28 @@ public final class SafeESA extends SafeAnalysis {
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Request message.
 	 */
-	public SafeESA(AnalysisServer server, AnalysisClient client, SafeESARequest request) {
-		super(server, client, request);
+	public SafeESA(AnalysisServer server, String alias, SafeESARequest request) {
+		super(server, alias, request);
 	}
 
 	@Override
 	protected void runTask() throws Exception {
 
 		// no client
-		if (client_ == null)
+		if (alias_ == null)
 			throw new Exception("No connected client found for analysis requester username.");
 
-		// create analysis directory
-		sendProgressMessage("Creating analysis directory...");
-		Path analysisDirectory = getWorkingDirectory();
+		// prepare input files (if not already prefetched)
+		Path analysisDirectory = prepareInputFiles();
 
-		// download input files from server
-		sendProgressMessage("Downloading input files from central database...");
-		Path inputArchive = downloadInputFile();
-
-		// extract input files from archive
-		sendProgressMessage("Extracting input files...");
-		Utility.extractAllFilesFromZIP(inputArchive, analysisDirectory);
+		// send results from cache (if analyzed before)
+		if (sendCachedResults())
+			return;
 
 		// input files don't exist
 		Path materialFile = analysisDirectory.resolve("material.mat");
@@ -99,47 +94,13 @@ public final class SafeESA extends SafeAnalysis {
 
 		// extract results from dossier file
 		sendProgressMessage("Extracting analysis results...");
-		SafeESARequest safeRequest = (SafeESARequest) request_;
-		boolean isFast = safeRequest.getFastAnalysis();
-		int analysisType = safeRequest.getAnalysisType();
-
-		// fast analysis
-		if (isFast) {
-
-			// fatigue
-			if (analysisType == SafeESARequest.FATIGUE) {
-				extractFastFatigueAnalysisResults();
-			}
-
-			// preffas
-			else if (analysisType == SafeESARequest.PREFFAS) {
-				extractFastPreffasAnalysisResults();
-			}
-
-			// linear
-			else if (analysisType == SafeESARequest.LINEAR) {
-				extractFastLinearAnalysisResults();
-			}
-		}
-
-		// full analysis
-		else {
-
-			// fatigue
-			if (analysisType == SafeESARequest.FATIGUE) {
-				extractFullFatigueAnalysisResults();
-			}
-
-			// preffas
-			else if (analysisType == SafeESARequest.PREFFAS) {
-				extractFullPreffasAnalysisResults();
-			}
+		extractResults();
+	}
 
-			// linear
-			else if (analysisType == SafeESARequest.LINEAR) {
-				extractFullLinearAnalysisResults();
-			}
-		}
+	@Override
+	protected String getSolverParameters() {
+		SafeESARequest request = (SafeESARequest) request_;
+		return "type=" + request.getAnalysisType() + ";fast=" + request.getFastAnalysis();
 	}
 
 	@Override
@@ -172,341 +133,82 @@ public final class SafeESA extends SafeAnalysis {
 	}
 
 	/**
-	 * Extracts full fatigue analysis results from the output dossier file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFullFatigueAnalysisResults() throws Exception {
-
-		// initialize variables
-		int validity = -1, totCycles = -1;
-		double fatEq = -1.0, minStress = -1.0, maxStress = -1.0, rRatio = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// validity
-				if (line.startsWith(" : Nb flight tot")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						validity = Integer.parseInt(split[1].trim());
-						minStress = Double.parseDouble(split[2].trim());
-						maxStress = Double.parseDouble(split[3].trim());
-						rRatio = Double.parseDouble(split[6].trim());
-						totCycles = Integer.parseInt(split[7].trim());
-					}
-				}
-
-				// others
-				else if (line.startsWith(" :  (Rain-Flow)")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						fatEq = Double.parseDouble(split[3].trim());
-					}
-				}
-			}
-		}
-
-		// no equivalent stress found
-		if (fatEq == -1.0)
-			throw new Exception("SAFE analysis failed! Cannot find fatigue equivalent stress in output dossier file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FullESAComplete message = new FullESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(fatEq);
-		message.setMaximumStress(maxStress);
-		message.setMinimumStress(minStress);
-		message.setRRatio(rRatio);
-		message.setTotalNumberOfCycles(totCycles);
-		message.setValidity(validity);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts full preffas analysis results from the output dossier file and sends analysis complete message back to the client.
+	 * Extracts analysis results from the output dossier file and sends analysis complete message back to the client.
 	 *
 	 * @throws Exception
 	 *             If exception occurs during process.
 	 */
-	private void extractFullPreffasAnalysisResults() throws Exception {
+	private void extractResults() throws Exception {
 
-		// initialize variables
-		int validity = -1, totCycles = -1;
-		double cgEqPref = -1.0, minStress = -1.0, maxStress = -1.0, rRatio = -1.0;
+		// get analysis type
+		SafeESARequest safeRequest = (SafeESARequest) request_;
+		int analysisType = safeRequest.getAnalysisType();
 
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
+		// parse dossier file (summary is only needed for full and linear analyses)
+		SafeDossier dossier = SafeDossierParser.parse(dossierFile_, !safeRequest.getFastAnalysis() || analysisType == SafeESARequest.LINEAR);
 
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// validity
-				if (line.startsWith(" : Nb flight tot")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						validity = Integer.parseInt(split[1].trim());
-						minStress = Double.parseDouble(split[2].trim());
-						maxStress = Double.parseDouble(split[3].trim());
-						rRatio = Double.parseDouble(split[6].trim());
-						totCycles = Integer.parseInt(split[7].trim());
-					}
-				}
+		// compute equivalent stress
+		double eqStress = -1.0;
 
-				// others
-				else if (line.startsWith(" :  (Rain-Flow)")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						cgEqPref = Double.parseDouble(split[7].trim());
-					}
-				}
-			}
+		// fatigue
+		if (analysisType == SafeESARequest.FATIGUE) {
+			eqStress = dossier.getRainFlowStress(SafeDossier.FATIGUE);
+			if (eqStress == -1.0)
+				throw new Exception("SAFE analysis failed! Cannot find fatigue equivalent stress in output dossier file.");
 		}
 
-		// no equivalent stress found
-		if (cgEqPref == -1.0)
-			throw new Exception("SAFE analysis failed! Cannot find preffas equivalent stress in output dossier file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FullESAComplete message = new FullESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(cgEqPref);
-		message.setMaximumStress(maxStress);
-		message.setMinimumStress(minStress);
-		message.setRRatio(rRatio);
-		message.setTotalNumberOfCycles(totCycles);
-		message.setValidity(validity);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts full linear analysis results from the output dossier file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFullLinearAnalysisResults() throws Exception {
-
-		// initialize variables
-		int validity = -1, totCycles = -1;
-		double cgLinEff = -1.0, minStress = -1.0, maxStress = -1.0, rRatio = -1.0;
-
-		// read dossier file
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// validity
-				if (line.startsWith(" : Nb flight tot")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						validity = Integer.parseInt(split[1].trim());
-						minStress = Double.parseDouble(split[2].trim());
-						maxStress = Double.parseDouble(split[3].trim());
-						rRatio = Double.parseDouble(split[6].trim());
-						totCycles = Integer.parseInt(split[7].trim());
-					}
-				}
-			}
+		// preffas
+		else if (analysisType == SafeESARequest.PREFFAS) {
+			eqStress = dossier.getRainFlowStress(SafeDossier.PREFFAS);
+			if (eqStress == -1.0)
+				throw new Exception("SAFE analysis failed! Cannot find preffas equivalent stress in output dossier file.");
 		}
 
-		// read log file
-		try (BufferedReader reader = Files.newBufferedReader(logFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null, previousLine = null;
-			while ((line = reader.readLine()) != null) {
-
-				// others
-				if (line.startsWith(" subroutine FTEQPRO:")) {
-					split = previousLine.trim().split(":");
-					cgLinEff = Double.parseDouble(split[1].trim());
-					break;
-				}
-
-				// save previous line
-				previousLine = line;
-			}
+		// linear
+		else if (analysisType == SafeESARequest.LINEAR) {
+			eqStress = computeLinearEquivalentStress(dossier.getValidity());
 		}
 
-		// no equivalent stress found
-		if (cgLinEff == -1.0)
-			throw new Exception("SAFE analysis failed! Cannot find linear propagation equivalent stress in output dossier file.");
-
-		// compute linear equivalent propagation stress
-		double a = cgAcgM_[0];
-		double b = 1.0 - cgAcgM_[0];
-		double m = cgAcgM_[1];
-		double c = 0.9 * (a + b * 0.1);
-		double cgEqLin = Math.pow(cgLinEff / validity, 1.0 / m) / c;
-
 		// upload produced output file (if any) to database and get download ID
 		String downloadUrl = uploadOutputFiles(true);
 
-		// create and send analysis complete message
-		FullESAComplete message = new FullESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(cgEqLin);
-		message.setMaximumStress(maxStress);
-		message.setMinimumStress(minStress);
-		message.setRRatio(rRatio);
-		message.setTotalNumberOfCycles(totCycles);
-		message.setValidity(validity);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts fast fatigue analysis results from the output dossier file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFastFatigueAnalysisResults() throws Exception {
-
-		// initialize variables
-		double fatEq = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-				if (line.startsWith(" :  (Rain-Flow)")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						fatEq = Double.parseDouble(split[3].trim());
-					}
-				}
-			}
+		// fast analysis
+		if (safeRequest.getFastAnalysis()) {
+			FastESAComplete message = new FastESAComplete();
+			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setDownloadUrl(downloadUrl);
+			message.setEquivalentStress(eqStress);
+			sendCompleteMessage(message);
 		}
 
-		// no equivalent stress found
-		if (fatEq == -1.0)
-			throw new Exception("SAFE analysis failed! Cannot find fatigue equivalent stress in output dossier file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FastESAComplete message = new FastESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(fatEq);
-		client_.sendMessage(message);
-	}
-
-	/**
-	 * Extracts fast preffas analysis results from the output dossier file and sends analysis complete message back to the client.
-	 *
-	 * @throws Exception
-	 *             If exception occurs during process.
-	 */
-	private void extractFastPreffasAnalysisResults() throws Exception {
-
-		// initialize variables
-		double cgEqPref = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-				if (line.startsWith(" :  (Rain-Flow)")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						cgEqPref = Double.parseDouble(split[7].trim());
-					}
-				}
-			}
+		// full analysis
+		else {
+			FullESAComplete message = new FullESAComplete();
+			message.setListenerHashCode(request_.getListenerHashCode());
+			message.setDownloadUrl(downloadUrl);
+			message.setEquivalentStress(eqStress);
+			message.setMaximumStress(dossier.getMaximumStress());
+			message.setMinimumStress(dossier.getMinimumStress());
+			message.setRRatio(dossier.getRRatio());
+			message.setTotalNumberOfCycles(dossier.getTotalCycles());
+			message.setValidity(dossier.getValidity());
+			sendCompleteMessage(message);
 		}
-
-		// no equivalent stress found
-		if (cgEqPref == -1.0)
-			throw new Exception("SAFE analysis failed! Cannot find preffas equivalent stress in output dossier file.");
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FastESAComplete message = new FastESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(cgEqPref);
-		client_.sendMessage(message);
 	}
 
 	/**
-	 * Extracts fast linear propagation analysis results from the output dossier file and sends analysis complete message back to the client.
+	 * Computes linear propagation equivalent stress from the efficiency written to the output log file.
 	 *
+	 * @param validity
+	 *            Validity of the spectrum.
+	 * @return Linear propagation equivalent stress.
 	 * @throws Exception
 	 *             If exception occurs during process.
 	 */
-	private void extractFastLinearAnalysisResults() throws Exception {
-
-		// initialize variables
-		int validity = -1;
-		double cgLinEff = -1.0;
-
-		// create file reader
-		try (BufferedReader reader = Files.newBufferedReader(dossierFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// validity
-				if (line.startsWith(" : Nb flight tot")) {
-					line = reader.readLine();
-					line = reader.readLine();
-					if (line != null) {
-						split = line.split(":");
-						validity = Integer.parseInt(split[1].trim());
-					}
-				}
-			}
-		}
+	private double computeLinearEquivalentStress(int validity) throws Exception {
 
 		// read log file
+		double cgLinEff = -1.0;
 		try (BufferedReader reader = Files.newBufferedReader(logFile_, Charset.defaultCharset())) {
 
 			// read file till the end
@@ -535,16 +237,6 @@ public final class SafeESA extends SafeAnalysis {
 		double b = 1.0 - cgAcgM_[0];
 		double m = cgAcgM_[1];
 		double c = 0.9 * (a + b * 0.1);
-		double cgEqLin = Math.pow(cgLinEff / validity, 1.0 / m) / c;
-
-		// upload produced output file (if any) to database and get download ID
-		String downloadUrl = uploadOutputFiles(true);
-
-		// create and send analysis complete message
-		FastESAComplete message = new FastESAComplete();
-		message.setListenerHashCode(request_.getListenerHashCode());
-		message.setDownloadUrl(downloadUrl);
-		message.setEquivalentStress(cgEqLin);
-		client_.sendMessage(message);
+		return Math.pow(cgLinEff / validity, 1.0 / m) / c;
 	}
 }
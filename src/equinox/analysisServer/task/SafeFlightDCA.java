@@ -15,17 +15,16 @@
  */
 package equinox.analysisServer.task;
 
-import java.io.BufferedReader;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 
-import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.parser.SafeLogTailer;
 import equinox.analysisServer.remote.message.FlightDCAComplete;
+import equinox.analysisServer.remote.message.FlightDCAPartialResult;
 import equinox.analysisServer.remote.message.SafeFlightDCARequest;
 import equinox.analysisServer.server.AnalysisServer;
-import equinox.analysisServer.utility.Utility;
+import equinox.analysisServer.server.ResultCache;
 
 /**
  * Class for SAFE typical flight damage contribution analysis task.
@@ -37,38 +36,39 @@ import equinox.analysisServer.utility.Utility;
  */
 public final class SafeFlightDCA extends SafeAnalysis {
 
+	/** Output log tailer. */
+	private SafeLogTailer tailer_;
+
+	/** Result cache entry the flight damages are streamed into, or null if the result is not cached. */
+	private ResultCache.Entry cacheEntry_;
+
 	/**
 	 * Creates SAFE typical flight damage contribution analysis task.
 	 *
 	 * @param server
 	 *            Server instance.
-	 * @param client
-	 *            Requesting client.
+	 * @param alias
+	 *            Alias of the requesting client.
 	 * @param request
 	 *            Request message.
 	 */
-	public SafeFlightDCA(AnalysisServer server, AnalysisClient client, SafeFlightDCARequest request) {
-		super(server, client, request);
+	public SafeFlightDCA(AnalysisServer server, String alias, SafeFlightDCARequest request) {
+		super(server, alias, request);
 	}
 
 	@Override
 	protected void runTask() throws Exception {
 
 		// no client
-		if (client_ == null)
+		if (alias_ == null)
 			throw new Exception("No connected client found for analysis requester username.");
 
-		// create analysis directory
-		sendProgressMessage("Creating analysis directory...");
-		Path analysisDirectory = getWorkingDirectory();
+		// prepare input files (if not already prefetched)
+		Path analysisDirectory = prepareInputFiles();
 
-		// download input files from server
-		sendProgressMessage("Downloading input files from central database...");
-		Path inputArchive = downloadInputFile();
-
-		// extract input files from archive
-		sendProgressMessage("Extracting input files...");
-		Utility.extractAllFilesFromZIP(inputArchive, analysisDirectory);
+		// send results from cache (if analyzed before)
+		if (sendCachedResults())
+			return;
 
 		// input files don't exist
 		Path materialFile = analysisDirectory.resolve("material.mat");
@@ -88,13 +88,33 @@ public final class SafeFlightDCA extends SafeAnalysis {
 		sendProgressMessage("Modifying SIGMA file...");
 		modifySIGMAFile(sigmaFile, analysisDirectory);
 
-		// run analysis
-		sendProgressMessage("Analysis running...");
-		runAnalysis(analysisDirectory);
+		// create result cache entry
+		cacheEntry_ = createCacheEntry();
+
+		// run analysis (flight damages are streamed while running)
+		try {
+			sendProgressMessage("Analysis running...");
+			runAnalysis(analysisDirectory);
+
+			// send remaining results
+			sendProgressMessage("Extracting analysis results...");
+			extractResults();
+		}
+
+		// close log tailer and result cache entry (discarded if not committed)
+		finally {
+			if (tailer_ != null) {
+				tailer_.close();
+			}
+			if (cacheEntry_ != null) {
+				cacheEntry_.close();
+			}
+		}
+	}
 
-		// extract results from dossier file
-		sendProgressMessage("Extracting analysis results...");
-		extractResults();
+	@Override
+	protected String getSolverParameters() {
+		return "";
 	}
 
 	@Override
@@ -126,50 +146,74 @@ public final class SafeFlightDCA extends SafeAnalysis {
 		return outputs;
 	}
 
+	@Override
+	protected void analysisRunning(Process process) throws Exception {
+
+		// create log tailer
+		int chunkSize = server_.getConfig().getFlightChunkSize();
+		tailer_ = new SafeLogTailer(logFile_, chunkSize, this::chunkParsed);
+
+		// stream flight damages while the solver is running
+		waitForSolver(process, tailer_);
+	}
+
 	/**
-	 * Extracts analysis results and send analysis complete message back to requesting client.
+	 * Sends the remaining flight damages and the analysis complete message back to requesting client.
 	 *
 	 * @throws Exception
 	 *             If exception occurs during process.
 	 */
 	private void extractResults() throws Exception {
 
+		// send remaining flight damages
+		tailer_.finish();
+
 		// create and send analysis complete message
 		FlightDCAComplete message = new FlightDCAComplete();
 		message.setListenerHashCode(request_.getListenerHashCode());
+		message.setStreamedFlights(tailer_.getFlights());
+		message.setTotalDamage(tailer_.getTotalDamage());
+		sendMessage(message);
 
-		// extract flight damages
-		try (BufferedReader reader = Files.newBufferedReader(logFile_, Charset.defaultCharset())) {
-
-			// read file till the end
-			String[] split;
-			String line = null;
-			while ((line = reader.readLine()) != null) {
-
-				// others
-				if (line.startsWith(" RESULTS FLIGHT NUMBER")) {
-
-					// get flight number
-					int flightNumber = Integer.parseInt(line.trim().substring(21).trim());
-
-					// get damage
-					for (int i = 0; i < 15; i++) {
-						line = reader.readLine();
-					}
-					if (line == null) {
-						continue;
-					}
-					split = line.split(":");
-					double damage = Double.parseDouble(split[5].trim());
-
-					// put it in the message
-					message.putDamage(flightNumber, damage);
-					message.addDamage(damage);
-				}
-			}
+		// commit result cache entry
+		if (cacheEntry_ != null) {
+			cacheEntry_.commit(message);
+		}
+	}
+
+	/**
+	 * Called when a chunk of flight damages is parsed from the output log file. Sends the chunk back to requesting client and appends it to the result cache entry.
+	 *
+	 * @param flightNumbers
+	 *            Typical flight numbers.
+	 * @param damages
+	 *            Damages of typical flights.
+	 */
+	private void chunkParsed(int[] flightNumbers, double[] damages) {
+
+		// send chunk
+		FlightDCAPartialResult message = sendPartialResult(flightNumbers, damages);
+
+		// stream to the result cache entry
+		if (cacheEntry_ != null) {
+			cacheEntry_.append(message);
 		}
+	}
 
-		// send message to client
-		client_.sendMessage(message);
+	/**
+	 * Sends given chunk of flight damages back to requesting client.
+	 *
+	 * @param flightNumbers
+	 *            Typical flight numbers.
+	 * @param damages
+	 *            Damages of typical flights.
+	 * @return The sent message.
+	 */
+	private FlightDCAPartialResult sendPartialResult(int[] flightNumbers, double[] damages) {
+		FlightDCAPartialResult message = new FlightDCAPartialResult();
+		message.setListenerHashCode(request_.getListenerHashCode());
+		message.setDamages(flightNumbers, damages);
+		sendMessage(message);
+		return message;
 	}
-}
+}
\ No newline at end of file
@@ -22,6 +22,8 @@ import java.util.List;
 
 import com.jcraft.jsch.JSchException;
 
+import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.remote.message.AnalysisProgress;
 import equinox.analysisServer.server.AnalysisServer;
 import equinox.analysisServer.utility.Utility;
 import equinox.serverUtilities.FilerConnection;
@@ -122,13 +124,40 @@ public abstract class ServerTask implements Runnable {
 		return Utility.createFilerConnection(server_.getLogger());
 	}
 
+	/**
+	 * Sends given progress message to the given client. This is used by administrative tasks to report progress (such as the drain progress of stopping the server) to the requesting client.
+	 *
+	 * @param client
+	 *            Client to send the message to.
+	 * @param listenerHashCode
+	 *            Hash code of the client listener.
+	 * @param progressMessage
+	 *            Progress message.
+	 */
+	protected void sendProgress(AnalysisClient client, int listenerHashCode, String progressMessage) {
+		AnalysisProgress message = new AnalysisProgress();
+		message.setListenerHashCode(listenerHashCode);
+		message.setProgressMessage(progressMessage);
+		client.sendMessage(message);
+	}
+
+	/**
+	 * Called by the scratch reaper after the temporary files of this task are deleted. Default implementation does nothing.
+	 *
+	 * @param bytesReclaimed
+	 *            Number of bytes reclaimed by deleting the temporary files.
+	 */
+	protected void temporaryFilesDeleted(long bytesReclaimed) {
+		// no implementation
+	}
+
 	/**
 	 * Deletes all temporary files after the task is complete.
 	 */
 	private void deleteTemporaryFiles() {
 
 		// don't delete temporary files
-		if (server_.getProperties().getProperty("temp.delete").equals("no"))
+		if (!server_.getConfig().isDeleteTemporaryFiles())
 			return;
 
 		// no temporary file was produced
@@ -136,7 +165,7 @@ public abstract class ServerTask implements Runnable {
 		if (tempFiles == null || tempFiles.isEmpty())
 			return;
 
-		// delete temporary files
-		server_.getThreadPool().submit(new DeleteTemporaryFiles(server_, tempFiles));
+		// schedule temporary files for deletion
+		server_.getScratchReaper().delete(tempFiles, this::temporaryFilesDeleted);
 	}
 }
\ No newline at end of file
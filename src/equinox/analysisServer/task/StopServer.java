@@ -84,7 +84,7 @@ public class StopServer extends ServerTask {
 			server_.getLogger().info("Stopping analysis server on request from '" + client.getAlias() + "'.");
 
 			// stop server
-			server_.stopServer(false, true);
+			server_.stopServer(false, true, status -> sendProgress(client, request.getListenerHashCode(), status));
 		}
 	}
 
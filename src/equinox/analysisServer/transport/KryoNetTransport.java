@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.transport;
+
+import java.io.IOException;
+
+import com.esotericsoftware.kryonet.Server;
+
+import equinox.analysisServer.server.AnalysisServer;
+import equinox.analysisServer.utility.Utility;
+
+/**
+ * Class for KryoNet transport. This is the default transport, accepting client connections over TCP (and optionally UDP).
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 17:31:50
+ */
+public class KryoNetTransport implements Transport {
+
+	/** Server. */
+	private final AnalysisServer server_;
+
+	/** Network server. */
+	private final Server networkServer_;
+
+	/**
+	 * Creates KryoNet transport.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public KryoNetTransport(AnalysisServer server) {
+		server_ = server;
+		networkServer_ = Utility.setupNetworkServer(server);
+	}
+
+	/**
+	 * Returns network server.
+	 *
+	 * @return Network server.
+	 */
+	public Server getNetworkServer() {
+		return networkServer_;
+	}
+
+	@Override
+	public void start() throws IOException {
+
+		// bind server to its ports
+		int port = Integer.parseInt(server_.getProperties().getProperty("ns.port"));
+		int udpPort = Integer.parseInt(server_.getProperties().getProperty("ns.udpPort"));
+		if (udpPort > 0) {
+			networkServer_.bind(port, udpPort);
+		}
+		else {
+			networkServer_.bind(port);
+		}
+
+		// start the network server
+		networkServer_.start();
+	}
+
+	@Override
+	public void stop() {
+		networkServer_.stop();
+	}
+}
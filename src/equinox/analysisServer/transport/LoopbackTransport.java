@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import equinox.analysisServer.client.AnalysisClient;
+import equinox.analysisServer.client.ClientHandler;
+import equinox.analysisServer.remote.Registry;
+import equinox.analysisServer.server.AnalysisServer;
+
+/**
+ * Class for in-process loopback transport. Clients are connected by calling {@link #connect(Consumer)} instead of opening sockets. Messages in both directions are serialized and deserialized with the network serializer, so that load tests and benchmarks drive the full request path including the protocol overhead, but without the network cost.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 17:38:27
+ */
+public class LoopbackTransport implements Transport {
+
+	/** Serializers of the calling threads. */
+	private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> {
+		Kryo kryo = new Kryo();
+		Registry.register(kryo);
+		return kryo;
+	});
+
+	/** Client handler. */
+	private final ClientHandler handler_;
+
+	/** Open connections. */
+	private final List<LoopbackConnection> connections_ = new ArrayList<>();
+
+	/** True if the transport is started. */
+	private volatile boolean isStarted_ = false;
+
+	/**
+	 * Creates loopback transport.
+	 *
+	 * @param server
+	 *            Server instance.
+	 */
+	public LoopbackTransport(AnalysisServer server) {
+		handler_ = new ClientHandler(server);
+	}
+
+	@Override
+	public void start() {
+		isStarted_ = true;
+	}
+
+	@Override
+	public void stop() {
+		isStarted_ = false;
+		List<LoopbackConnection> connections;
+		synchronized (connections_) {
+			connections = new ArrayList<>(connections_);
+		}
+		connections.forEach(LoopbackConnection::close);
+	}
+
+	/**
+	 * Connects a new in-process client.
+	 *
+	 * @param receiver
+	 *            Receiver of the messages sent to the client. It is called on the sending server thread.
+	 * @return The connection. Messages are sent to the server with {@link LoopbackConnection#send(Object)}.
+	 * @throws IOException
+	 *             If the transport is not started.
+	 */
+	public LoopbackConnection connect(Consumer<Object> receiver) throws IOException {
+		if (!isStarted_)
+			throw new IOException("Loopback transport is not started.");
+		LoopbackConnection connection = new LoopbackConnection(receiver);
+		synchronized (connections_) {
+			connections_.add(connection);
+		}
+		return connection;
+	}
+
+	/**
+	 * Returns a copy of the given object created by serializing and deserializing it with the network serializer.
+	 *
+	 * @param object
+	 *            Object to copy.
+	 * @param size
+	 *            Array to store the serialized size in bytes.
+	 * @return The copy of the object.
+	 */
+	private static Object copy(Object object, int[] size) {
+		Kryo kryo = KRYO.get();
+		Output output = new Output(4096, -1);
+		kryo.writeClassAndObject(output, object);
+		size[0] = output.position();
+		return kryo.readClassAndObject(new Input(output.getBuffer(), 0, output.position()));
+	}
+
+	/**
+	 * Inner class for loopback connection.
+	 *
+	 * @author Murat Artim
+	 * @date 19 Oct 2026
+	 * @time 17:46:02
+	 */
+	public class LoopbackConnection implements TransportConnection {
+
+		/** Receiver of the messages sent to the client. */
+		private final Consumer<Object> receiver_;
+
+		/** The client of this connection. */
+		private volatile AnalysisClient client_ = null;
+
+		/** True if the connection is open. */
+		private volatile boolean isConnected_ = true;
+
+		/**
+		 * Creates loopback connection.
+		 *
+		 * @param receiver
+		 *            Receiver of the messages sent to the client.
+		 */
+		private LoopbackConnection(Consumer<Object> receiver) {
+			receiver_ = receiver;
+		}
+
+		/**
+		 * Sends given message from the client to the server.
+		 *
+		 * @param message
+		 *            Message to send.
+		 * @return Number of bytes sent.
+		 */
+		public int send(Object message) {
+			if (!isConnected_)
+				return 0;
+			int[] size = { 0 };
+			handler_.received(this, copy(message, size));
+			return size[0];
+		}
+
+		@Override
+		public int sendTCP(Object object) {
+			if (!isConnected_)
+				return 0;
+			int[] size = { 0 };
+			receiver_.accept(copy(object, size));
+			return size[0];
+		}
+
+		@Override
+		public int sendUDP(Object object) {
+			throw new IllegalStateException("Loopback connection has no unreliable channel.");
+		}
+
+		@Override
+		public InetSocketAddress getRemoteAddressUDP() {
+			return null;
+		}
+
+		@Override
+		public int getTcpWriteBufferSize() {
+			return 0;
+		}
+
+		@Override
+		public boolean isConnected() {
+			return isConnected_;
+		}
+
+		@Override
+		public void setTimeout(int timeoutMillis) {
+			// no timeout
+		}
+
+		@Override
+		public void close() {
+			if (!isConnected_)
+				return;
+			isConnected_ = false;
+			synchronized (connections_) {
+				connections_.remove(this);
+			}
+			handler_.disconnected(this);
+		}
+
+		@Override
+		public TransportConnection setClient(AnalysisClient client) {
+			client_ = client;
+			return this;
+		}
+
+		@Override
+		public AnalysisClient getClient() {
+			return client_;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.transport;
+
+import java.io.IOException;
+
+/**
+ * Interface for server transports. A transport accepts client connections and passes the received messages and disconnections to the client handler of the server.
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 17:22:41
+ */
+public interface Transport {
+
+	/**
+	 * Starts accepting client connections.
+	 *
+	 * @throws IOException
+	 *             If the transport cannot be started.
+	 */
+	void start() throws IOException;
+
+	/**
+	 * Stops the transport. All client connections are closed.
+	 */
+	void stop();
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Murat Artim (muratartim@gmail.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package equinox.analysisServer.transport;
+
+import java.net.InetSocketAddress;
+
+import equinox.analysisServer.client.AnalysisClient;
+
+/**
+ * Interface for client connections of a transport. Connections have a reliable, ordered channel and optionally an unreliable channel (the method names follow KryoNet, which is the default transport).
+ *
+ * @author Murat Artim
+ * @date 19 Oct 2026
+ * @time 17:25:13
+ */
+public interface TransportConnection {
+
+	/**
+	 * Sends given object over the reliable channel.
+	 *
+	 * @param object
+	 *            Object to send.
+	 * @return Number of bytes sent.
+	 */
+	int sendTCP(Object object);
+
+	/**
+	 * Sends given object over the unreliable channel.
+	 *
+	 * @param object
+	 *            Object to send.
+	 * @return Number of bytes sent.
+	 */
+	int sendUDP(Object object);
+
+	/**
+	 * Returns the address of the unreliable channel of the client, or null if the client has no unreliable channel.
+	 *
+	 * @return The address of the unreliable channel, or null.
+	 */
+	InetSocketAddress getRemoteAddressUDP();
+
+	/**
+	 * Returns the number of bytes waiting to be written on the reliable channel.
+	 *
+	 * @return The number of bytes waiting to be written.
+	 */
+	int getTcpWriteBufferSize();
+
+	/**
+	 * Returns true if the connection is open.
+	 *
+	 * @return True if the connection is open.
+	 */
+	boolean isConnected();
+
+	/**
+	 * Sets the time after which the connection is closed if nothing is received.
+	 *
+	 * @param timeoutMillis
+	 *            Timeout in milliseconds.
+	 */
+	void setTimeout(int timeoutMillis);
+
+	/**
+	 * Closes the connection.
+	 */
+	void close();
+
+	/**
+	 * Sets the client to this connection. This method should only be called from the client constructor after all client attributes are set.
+	 *
+	 * @param client
+	 *            Client to set.
+	 * @return This connection.
+	 */
+	TransportConnection setClient(AnalysisClient client);
+
+	/**
+	 * Returns the client of this connection, or null if the connection did not login yet.
+	 *
+	 * @return The client of this connection, or null if the connection did not login yet.
+	 */
+	AnalysisClient getClient();
+}
@@ -7,6 +7,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -17,6 +18,7 @@ import java.util.Iterator;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -180,6 +182,20 @@ public class Utility {
 	 *            Server logger.
 	 */
 	public static void shutdownThreadPool(ExecutorService executor, Logger logger) {
+		shutdownThreadPool(executor, 60, logger);
+	}
+
+	/**
+	 * Shuts down the given thread executor in two phases, first by calling shutdown to reject incoming tasks, and then calling shutdownNow, if necessary, to cancel any lingering tasks.
+	 *
+	 * @param executor
+	 *            Thread executor to shutdown.
+	 * @param timeout
+	 *            Time to wait in each phase in seconds.
+	 * @param logger
+	 *            Server logger.
+	 */
+	public static void shutdownThreadPool(ExecutorService executor, long timeout, Logger logger) {
 
 		// disable new tasks from being submitted
 		executor.shutdown();
@@ -187,13 +203,13 @@ public class Utility {
 		try {
 
 			// wait a while for existing tasks to terminate
-			if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+			if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
 
 				// cancel currently executing tasks
 				executor.shutdownNow();
 
 				// wait a while for tasks to respond to being canceled
-				if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+				if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
 					logger.warning("Thread pool " + executor.toString() + " did not terminate.");
 				}
 			}
@@ -355,6 +371,45 @@ public class Utility {
 		return output;
 	}
 
+	/**
+	 * Copies given input stream to given output stream without exceeding the given bandwidth. The bandwidth limit is read after each write, so it can be lifted while copying.
+	 *
+	 * @param in
+	 *            Input stream.
+	 * @param out
+	 *            Output stream.
+	 * @param bandwidth
+	 *            Supplier of bandwidth limit in bytes per second. Limit of 0 means unlimited.
+	 * @throws Exception
+	 *             If exception occurs during process.
+	 */
+	public static void copyThrottled(InputStream in, OutputStream out, LongSupplier bandwidth) throws Exception {
+
+		// create buffer
+		byte[] buffer = new byte[BUFSIZE * 4];
+		long start = System.currentTimeMillis();
+		long copied = 0L;
+
+		// copy till the end of stream
+		int len;
+		while ((len = in.read(buffer)) != -1) {
+			out.write(buffer, 0, len);
+			copied += len;
+
+			// unlimited
+			long limit = bandwidth.getAsLong();
+			if (limit <= 0L) {
+				continue;
+			}
+
+			// ahead of bandwidth limit
+			long ahead = copied * 1000L / limit - (System.currentTimeMillis() - start);
+			if (ahead > 0L) {
+				Thread.sleep(ahead);
+			}
+		}
+	}
+
 	/**
 	 * Zips given files to given output file.
 	 *